@@ -0,0 +1,73 @@
+import java.util.Arrays;
+
+// A matrix of floats stored in a single row-major array, so rows are contiguous in memory and
+// element (i, j) is at index i * cols + j. The shape is validated once on construction and cannot
+// change, and the elements are only written by the operations of Lab1 creating the matrix, so
+// operations on matrices of the same shape need no further checks
+public final class FloatMatrix {
+
+  private final int rows;
+  private final int cols;
+  final float[] data;
+
+  public FloatMatrix(int rows, int cols) {
+    if (rows <= 0 || cols <= 0) {
+      throw new IllegalArgumentException(String.format(
+          "Matrix must have at least one row and one column. Found %d rows and %d columns.",
+          rows, cols));
+    }
+    if ((long) rows * cols > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException(String.format(
+          "Matrix of %d rows and %d columns is too large.", rows, cols));
+    }
+
+    this.rows = rows;
+    this.cols = cols;
+    this.data = new float[rows * cols];
+  }
+
+  public static FloatMatrix of(float[][] m) {
+    if (m == null || m.length == 0 || m[0] == null) {
+      throw new IllegalArgumentException("Matrix must have at least one row.");
+    }
+
+    var matrix = new FloatMatrix(m.length, m[0].length);
+    for (int i = 0; i < m.length; i++) {
+      if (m[i] == null || m[i].length != matrix.cols) {
+        throw new IllegalArgumentException(String.format(
+            "All rows in a matrix must have the same number of columns. Row %d has %d columns but expected %d.",
+            i, (m[i] == null) ? 0 : m[i].length, matrix.cols));
+      }
+      System.arraycopy(m[i], 0, matrix.data, i * matrix.cols, matrix.cols);
+    }
+    return matrix;
+  }
+
+  public int rows() {
+    return rows;
+  }
+
+  public int cols() {
+    return cols;
+  }
+
+  public float get(int i, int j) {
+    return data[offset(i, j)];
+  }
+
+  public float[][] toArray() {
+    float[][] m = new float[rows][];
+    for (int i = 0; i < rows; i++) {
+      m[i] = Arrays.copyOfRange(data, i * cols, (i + 1) * cols);
+    }
+    return m;
+  }
+
+  int offset(int i, int j) {
+    if (i < 0 || i >= rows || j < 0 || j >= cols) {
+      throw new IndexOutOfBoundsException(String.format(
+          "Position (%d, %d) is out of bounds for a %dx%d matrix.", i, j, rows, cols));
+    }
+    return i * cols + j;
+  }
+}
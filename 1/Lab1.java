@@ -1,5 +1,20 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
 public class Lab1 {
 
+  // Row bands per thread in the parallel operations, so that threads finishing early can take
+  // more work, and the smallest number of elements worth processing in a separate task
+  private static final int BANDS_PER_THREAD = 4;
+  private static final int MIN_BAND_SIZE = 1 << 14;
+
   public static void main(String[] args) {
     final float[][] A = {
         {-10.7f, -8f, 999.9f},
@@ -14,16 +29,44 @@ public class Lab1 {
 
     try {
 
-      validateMatrices(A, B);
+      if (args.length == 3) {
+        try (var arena = Arena.ofConfined()) {
+          var a = SegmentMatrix.map(Path.of(args[0]), arena);
+          var b = SegmentMatrix.map(Path.of(args[1]), arena);
+          validateMatrices(a, b);
+
+          var c = SegmentMatrix.create(Path.of(args[2]), a.rows(), a.cols(), arena);
+          xorMatrices(a, b, c);
+          c.force();
+          System.out.println("1. Matrix C is written to " + args[2]);
+
+          float sum = calcColMaxElemsSum(c);
+          System.out.println("2. Sum of maximum elements in each column: " + sum);
+        }
+        return;
+      }
 
-      float[][] C = xorMatrices(A, B);
+      if (args.length == 2) {
+        try (var rows1 = MatrixFile.readRows(Path.of(args[0]));
+            var rows2 = MatrixFile.readRows(Path.of(args[1]))) {
+          float sum = xorColMaxElemsSum(rows1, rows2);
+          System.out.println("Sum of maximum elements in each column of the XOR matrix: " + sum);
+        }
+        return;
+      }
+
+      var a = FloatMatrix.of(A);
+      var b = FloatMatrix.of(B);
+      validateMatrices(a, b);
+
+      FloatMatrix C = xorMatrices(a, b);
       System.out.println("1. Matrix C:");
       printMatrix(C);
 
       float sum = calcColMaxElemsSum(C);
       System.out.println("2. Sum of maximum elements in each column: " + sum);
 
-    } catch (IllegalArgumentException e) {
+    } catch (IllegalArgumentException | IOException | UncheckedIOException e) {
       System.err.println("Execution failed. " + e.getMessage());
       System.exit(1);
     }
@@ -36,40 +79,264 @@ public class Lab1 {
     float[][] resM = new float[rows][cols];
 
     for (int i = 0; i < rows; i++) {
-      for (int j = 0; j < cols; j++) {
-        float n1 = m1[i][j];
-        float n2 = m2[i][j];
+      int j = MatrixKernels.INSTANCE.xorRow(m1[i], 0, m2[i], 0, resM[i], 0, cols);
+      if (j >= 0) {
+        throw xorError(m1[i][j], m2[i][j], i, j);
+      }
+    }
 
-        int n1Bits = Float.floatToIntBits(n1);
-        int n2Bits = Float.floatToIntBits(n2);
-        int xorBits = n1Bits ^ n2Bits;
+    return resM;
+  }
 
-        float res = Float.intBitsToFloat(xorBits);
+  // The shapes of FloatMatrix objects are validated on construction, so comparing them is enough
+  // to make every element valid. Rows are contiguous and of the same length in both matrices, so
+  // the whole data is XORed in a single kernel call without a loop over rows
+  public static FloatMatrix xorMatrices(FloatMatrix m1, FloatMatrix m2) {
+    validateMatrices(m1, m2);
 
-        if (Float.isNaN(res)) {
-          throw new IllegalArgumentException(String.format(
-              "Cannot properly perform XOR operation for %f and %f at position (%d, %d)",
-              n1, n2, i, j));
-        }
+    var resM = new FloatMatrix(m1.rows(), m1.cols());
 
-        resM[i][j] = res;
-      }
+    int k = MatrixKernels.INSTANCE.xorRow(m1.data, 0, m2.data, 0, resM.data, 0, m1.data.length);
+    if (k >= 0) {
+      throw xorError(m1.data[k], m2.data[k], k / m1.cols(), k % m1.cols());
     }
 
     return resM;
   }
 
+  // Same as xorMatrices(FloatMatrix, FloatMatrix), but bands of rows are XORed in parallel by the
+  // given number of threads. If several elements give NaN, the error is reported for the first
+  // one in row-major order, as in the sequential version
+  public static FloatMatrix xorMatrices(FloatMatrix m1, FloatMatrix m2, int parallelism) {
+    validateMatrices(m1, m2);
+
+    var resM = new FloatMatrix(m1.rows(), m1.cols());
+    runBands(m1, m2, resM, parallelism);
+    return resM;
+  }
+
+  // Writes the XOR of m1 and m2 into result, which may be mapped to a file
+  public static void xorMatrices(SegmentMatrix m1, SegmentMatrix m2, SegmentMatrix result) {
+    validateMatrices(m1, m2);
+
+    int rows = m1.rows();
+    int cols = m1.cols();
+
+    if (result.rows() != rows || result.cols() != cols) {
+      throw new IllegalArgumentException(String.format(
+          "Result matrix must have the same dimensions as matrix 1. Expected %dx%d but found %dx%d.",
+          rows, cols, result.rows(), result.cols()));
+    }
+
+    long rowSize = (long) cols * Float.BYTES;
+    for (int i = 0; i < rows; i++) {
+      int j = MatrixKernels.INSTANCE.xorRow(m1.data, m2.data, result.data, i * rowSize, cols);
+      if (j >= 0) {
+        throw xorError(m1.get(i, j), m2.get(i, j), i, j);
+      }
+    }
+  }
+
+  private static IllegalArgumentException xorError(float n1, float n2, int i, int j) {
+    return new IllegalArgumentException(String.format(
+        "Cannot properly perform XOR operation for %f and %f at position (%d, %d)",
+        n1, n2, i, j));
+  }
+
+  // Column maxima are updated row by row, so the matrix is read sequentially
   public static float calcColMaxElemsSum(float[][] matrix) {
-    float sum = 0;
+    float[] max = matrix[0].clone();
+
+    for (int i = 1; i < matrix.length; i++) {
+      MatrixKernels.INSTANCE.maxRow(matrix[i], 0, max, max.length);
+    }
+
+    return sum(max);
+  }
+
+  public static float calcColMaxElemsSum(FloatMatrix matrix) {
+    int cols = matrix.cols();
+    float[] max = Arrays.copyOf(matrix.data, cols);
 
-    for (int j = 0; j < matrix[0].length; j++) {
-      float max = matrix[0][j];
-      for (int i = 1; i < matrix.length; i++) {
-        if (matrix[i][j] > max) {
-          max = matrix[i][j];
+    for (int offset = cols; offset < matrix.data.length; offset += cols) {
+      MatrixKernels.INSTANCE.maxRow(matrix.data, offset, max, cols);
+    }
+
+    return sum(max);
+  }
+
+  // Same as calcColMaxElemsSum(FloatMatrix), but the column maxima of bands of rows are found in
+  // parallel by the given number of threads and then merged in row order, so the sum is exactly
+  // the same
+  public static float calcColMaxElemsSum(FloatMatrix matrix, int parallelism) {
+    return sum(runBands(matrix, null, null, parallelism));
+  }
+
+  // Fused xorMatrices and calcColMaxElemsSum: each row pair is XORed straight into the column
+  // maxima, so the matrices are read once and the XOR matrix is never stored. Rows are taken one
+  // at a time and may be reused arrays, so matrices larger than the heap can be read from disk.
+  // Dimensions are checked as the rows arrive
+  public static float xorColMaxElemsSum(Iterator<float[]> m1Rows, Iterator<float[]> m2Rows) {
+    if (m1Rows == null || m2Rows == null) {
+      throw new IllegalArgumentException("Matrices 1 and 2 must not be null.");
+    }
+
+    float[] max = null;
+    int rows = 0;
+
+    for (; m1Rows.hasNext(); rows++) {
+      float[] row1 = m1Rows.next();
+      if (!m2Rows.hasNext()) {
+        throw rowCountError(countRows(m1Rows, rows + 1), rows);
+      }
+      float[] row2 = m2Rows.next();
+
+      if (max == null) {
+        if (row1.length == 0) {
+          throw new IllegalArgumentException("Matrix 1 must have at least one column.");
         }
+        max = new float[row1.length];
+      }
+      validateRows(row1, row2, max.length, rows);
+
+      int j = (rows == 0)
+          ? MatrixKernels.INSTANCE.xorRow(row1, 0, row2, 0, max, 0, max.length)
+          : MatrixKernels.INSTANCE.xorMaxRow(row1, 0, row2, 0, max, max.length);
+      if (j >= 0) {
+        throw xorError(row1[j], row2[j], rows, j);
+      }
+    }
+
+    if (max == null) {
+      throw new IllegalArgumentException("Matrix 1 must have at least one row.");
+    }
+    if (m2Rows.hasNext()) {
+      throw rowCountError(rows, countRows(m2Rows, rows));
+    }
+
+    return sum(max);
+  }
+
+  public static float xorColMaxElemsSum(FloatMatrix m1, FloatMatrix m2) {
+    validateMatrices(m1, m2);
+
+    int cols = m1.cols();
+    float[] max = new float[cols];
+
+    for (int i = 0, offset = 0; i < m1.rows(); i++, offset += cols) {
+      int j = (i == 0)
+          ? MatrixKernels.INSTANCE.xorRow(m1.data, 0, m2.data, 0, max, 0, cols)
+          : MatrixKernels.INSTANCE.xorMaxRow(m1.data, offset, m2.data, offset, max, cols);
+      if (j >= 0) {
+        throw xorError(m1.get(i, j), m2.get(i, j), i, j);
+      }
+    }
+
+    return sum(max);
+  }
+
+  // Same as xorColMaxElemsSum(FloatMatrix, FloatMatrix), but runs in parallel like
+  // xorMatrices(FloatMatrix, FloatMatrix, int)
+  public static float xorColMaxElemsSum(FloatMatrix m1, FloatMatrix m2, int parallelism) {
+    validateMatrices(m1, m2);
+    return sum(runBands(m1, m2, null, parallelism));
+  }
+
+  // Runs a BandTask over all rows and reports the first NaN found by any band
+  private static float[] runBands(FloatMatrix m1, FloatMatrix m2, FloatMatrix result,
+      int parallelism) {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("Parallelism must be positive.");
+    }
+
+    int bandRows = Math.max(m1.rows() / (parallelism * BANDS_PER_THREAD),
+        Math.ceilDiv(MIN_BAND_SIZE, m1.cols()));
+    var firstNan = new AtomicLong(Long.MAX_VALUE);
+
+    float[] max;
+    try (var pool = new ForkJoinPool(parallelism)) {
+      max = pool.invoke(new BandTask(m1, m2, result, firstNan, 0, m1.rows(), bandRows));
+    }
+
+    long nan = firstNan.get();
+    if (nan != Long.MAX_VALUE) {
+      int i = (int) (nan / m1.cols());
+      int j = (int) (nan % m1.cols());
+      throw xorError(m1.get(i, j), m2.get(i, j), i, j);
+    }
+    return max;
+  }
+
+  public static float xorColMaxElemsSum(SegmentMatrix m1, SegmentMatrix m2) {
+    validateMatrices(m1, m2);
+
+    int cols = m1.cols();
+    // XOR results are never NaN, so starting from -Infinity gives the same maxima as starting
+    // from the first row
+    float[] max = new float[cols];
+    Arrays.fill(max, Float.NEGATIVE_INFINITY);
+
+    long rowSize = (long) cols * Float.BYTES;
+    for (int i = 0; i < m1.rows(); i++) {
+      int j = MatrixKernels.INSTANCE.xorMaxRow(m1.data, m2.data, i * rowSize, max, cols);
+      if (j >= 0) {
+        throw xorError(m1.get(i, j), m2.get(i, j), i, j);
       }
-      sum += max;
+    }
+
+    return sum(max);
+  }
+
+  private static void validateRows(float[] row1, float[] row2, int cols, int i) {
+    if (row1 == null || row2 == null) {
+      throw new IllegalArgumentException(String.format(
+          "Row %d of matrices 1 and 2 must not be null.", i));
+    }
+
+    if (row1.length != cols) {
+      throw new IllegalArgumentException(String.format(
+          "All rows in matrix 1 must have the same number of columns. Row %d has %d columns but expected %d.",
+          i, row1.length, cols));
+    }
+
+    if (row2.length != row1.length) {
+      throw new IllegalArgumentException(String.format(
+          "Matrices 1 and 2 must have the same dimensions. Mismatch at row %d: matrix 1 has %d columns, matrix 2 has %d columns.",
+          i, row1.length, row2.length));
+    }
+  }
+
+  private static int countRows(Iterator<float[]> rows, int counted) {
+    for (; rows.hasNext(); counted++) {
+      rows.next();
+    }
+    return counted;
+  }
+
+  private static IllegalArgumentException rowCountError(int m1Rows, int m2Rows) {
+    return new IllegalArgumentException(String.format(
+        "Matrix 2 must have the same number of rows as matrix 1. Expected %d but found %d.",
+        m1Rows, m2Rows));
+  }
+
+  public static float calcColMaxElemsSum(SegmentMatrix matrix) {
+    int cols = matrix.cols();
+    float[] max = matrix.data.asSlice(0, (long) cols * Float.BYTES)
+        .toArray(SegmentMatrix.ELEMENT);
+
+    long rowSize = (long) cols * Float.BYTES;
+    for (int i = 1; i < matrix.rows(); i++) {
+      MatrixKernels.INSTANCE.maxRow(matrix.data, i * rowSize, max, cols);
+    }
+
+    return sum(max);
+  }
+
+  private static float sum(float[] values) {
+    float sum = 0;
+
+    for (float value : values) {
+      sum += value;
     }
 
     return sum;
@@ -80,6 +347,10 @@ public class Lab1 {
       throw new IllegalArgumentException("Matrices 1 and 2 must not be null.");
     }
 
+    if (m1.length == 0 || m1[0] == null) {
+      throw new IllegalArgumentException("Matrix 1 must have at least one row.");
+    }
+
     int m1Rows = m1.length;
     int m1Cols = m1[0].length;
 
@@ -88,23 +359,37 @@ public class Lab1 {
     }
 
     if (m2.length != m1Rows) {
-      throw new IllegalArgumentException(String.format(
-          "Matrix 2 must have the same number of rows as matrix 1. Expected %d but found %d.",
-          m1Rows, m2.length));
+      throw rowCountError(m1Rows, m2.length);
     }
 
     for (int i = 0; i < m1Rows; i++) {
-      if (m1[i].length != m1Cols) {
-        throw new IllegalArgumentException(String.format(
-            "All rows in matrix 1 must have the same number of columns. Row %d has %d columns but expected %d.",
-            i, m1[i].length, m1Cols));
-      }
+      validateRows(m1[i], m2[i], m1Cols, i);
+    }
+  }
 
-      if (m2[i].length != m1[i].length) {
-        throw new IllegalArgumentException(String.format(
-            "Matrices 1 and 2 must have the same dimensions. Mismatch at row %d: matrix 1 has %d columns, matrix 2 has %d columns.",
-            i, m1[i].length, m2[i].length));
-      }
+  public static void validateMatrices(FloatMatrix m1, FloatMatrix m2) {
+    if (m1 == null || m2 == null) {
+      throw new IllegalArgumentException("Matrices 1 and 2 must not be null.");
+    }
+    validateDimensions(m1.rows(), m1.cols(), m2.rows(), m2.cols());
+  }
+
+  public static void validateMatrices(SegmentMatrix m1, SegmentMatrix m2) {
+    if (m1 == null || m2 == null) {
+      throw new IllegalArgumentException("Matrices 1 and 2 must not be null.");
+    }
+    validateDimensions(m1.rows(), m1.cols(), m2.rows(), m2.cols());
+  }
+
+  private static void validateDimensions(int m1Rows, int m1Cols, int m2Rows, int m2Cols) {
+    if (m2Rows != m1Rows) {
+      throw rowCountError(m1Rows, m2Rows);
+    }
+
+    if (m2Cols != m1Cols) {
+      throw new IllegalArgumentException(String.format(
+          "Matrices 1 and 2 must have the same dimensions. Matrix 1 has %d columns, matrix 2 has %d columns.",
+          m1Cols, m2Cols));
     }
   }
 
@@ -116,4 +401,116 @@ public class Lab1 {
       System.out.println();
     }
   }
+
+  public static void printMatrix(FloatMatrix m) {
+    for (int i = 0; i < m.rows(); i++) {
+      for (int j = 0; j < m.cols(); j++) {
+        System.out.printf("%45.3f\t", m.get(i, j));
+      }
+      System.out.println();
+    }
+  }
+
+  public static void printMatrix(SegmentMatrix m) {
+    for (int i = 0; i < m.rows(); i++) {
+      for (int j = 0; j < m.cols(); j++) {
+        System.out.printf("%45.3f\t", m.get(i, j));
+      }
+      System.out.println();
+    }
+  }
+
+  // Processes a band of rows, splitting it in halves while it is larger than bandRows. Without m2
+  // it finds the column maxima of m1; with m2 it XORs the rows into result, or into the column
+  // maxima if there is no result. The index in row-major order of the first NaN XOR result is kept
+  // in firstNan, and bands after it stop early, since their results are discarded anyway
+  private static final class BandTask extends RecursiveTask<float[]> {
+
+    private final FloatMatrix m1;
+    private final FloatMatrix m2;
+    private final FloatMatrix result;
+    private final AtomicLong firstNan;
+    private final int from;
+    private final int to;
+    private final int bandRows;
+
+    BandTask(FloatMatrix m1, FloatMatrix m2, FloatMatrix result, AtomicLong firstNan, int from,
+        int to, int bandRows) {
+      this.m1 = m1;
+      this.m2 = m2;
+      this.result = result;
+      this.firstNan = firstNan;
+      this.from = from;
+      this.to = to;
+      this.bandRows = bandRows;
+    }
+
+    // The maxima of the right half replace those of the left half only if they are greater, as
+    // later rows do in the sequential version
+    @Override
+    protected float[] compute() {
+      if (to - from <= bandRows) {
+        return computeBand();
+      }
+
+      int middle = (from + to) >>> 1;
+      var left = new BandTask(m1, m2, result, firstNan, from, middle, bandRows);
+      var right = new BandTask(m1, m2, result, firstNan, middle, to, bandRows);
+
+      right.fork();
+      float[] leftMax = left.compute();
+      float[] rightMax = right.join();
+
+      if (leftMax != null) {
+        MatrixKernels.INSTANCE.maxRow(rightMax, 0, leftMax, leftMax.length);
+      }
+      return leftMax;
+    }
+
+    // Only the band starting at the first row takes its maxima from that row, since a NaN there
+    // is never replaced. Other bands start from -Infinity, which ignores NaN like any later row
+    private float[] computeBand() {
+      int cols = m1.cols();
+
+      // The rows of the band are contiguous, so they are XORed in a single kernel call
+      if (result != null) {
+        int offset = from * cols;
+        if (firstNan.get() < offset) {
+          return null;
+        }
+        int k = MatrixKernels.INSTANCE.xorRow(m1.data, offset, m2.data, offset, result.data,
+            offset, (to - from) * cols);
+        if (k >= 0) {
+          firstNan.accumulateAndGet((long) offset + k, Math::min);
+        }
+        return null;
+      }
+
+      float[] max = new float[cols];
+      if (m2 == null && from == 0) {
+        System.arraycopy(m1.data, 0, max, 0, cols);
+      } else {
+        Arrays.fill(max, Float.NEGATIVE_INFINITY);
+      }
+
+      for (int i = from, offset = from * cols; i < to; i++, offset += cols) {
+        if (firstNan.get() < offset) {
+          break;
+        }
+
+        int j = -1;
+        if (m2 == null) {
+          MatrixKernels.INSTANCE.maxRow(m1.data, offset, max, cols);
+        } else {
+          j = MatrixKernels.INSTANCE.xorMaxRow(m1.data, offset, m2.data, offset, max, cols);
+        }
+
+        if (j >= 0) {
+          firstNan.accumulateAndGet((long) offset + j, Math::min);
+          break;
+        }
+      }
+      return max;
+    }
+  }
 }
@@ -0,0 +1,171 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Binary matrix files: the number of rows and columns as two ints, followed by the elements in
+// row-major order. All values are little-endian. Files are read and written row by row, so
+// matrices do not have to fit in memory
+public final class MatrixFile {
+
+  static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private MatrixFile() {
+  }
+
+  public static void write(Path path, float[][] m) throws IOException {
+    try (var writer = new RowWriter(path, m[0].length)) {
+      for (float[] row : m) {
+        writer.writeRow(row);
+      }
+    }
+  }
+
+  public static RowReader readRows(Path path) throws IOException {
+    return new RowReader(path);
+  }
+
+  // Returns the same array for every row, overwritten by the next call to next()
+  public static final class RowReader implements Iterator<float[]>, Closeable {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private FloatBuffer floats;
+    private final int rows;
+    private final float[] row;
+    private int rowsRead;
+
+    private RowReader(Path path) throws IOException {
+      channel = FileChannel.open(path, StandardOpenOption.READ);
+      try {
+        var header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(header);
+        rows = header.getInt(0);
+        int cols = header.getInt(Integer.BYTES);
+
+        if (rows < 0 || cols <= 0
+            || channel.size() != HEADER_SIZE + (long) rows * cols * Float.BYTES) {
+          throw new IOException("Invalid matrix file " + path + ".");
+        }
+
+        row = new float[cols];
+        buffer = ByteBuffer.allocateDirect(Math.max(BUFFER_SIZE, cols * Float.BYTES))
+            .order(ByteOrder.LITTLE_ENDIAN);
+        floats = buffer.limit(0).asFloatBuffer();
+      } catch (IOException e) {
+        channel.close();
+        throw e;
+      }
+    }
+
+    public int rows() {
+      return rows;
+    }
+
+    public int cols() {
+      return row.length;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return rowsRead < rows;
+    }
+
+    @Override
+    public float[] next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+
+      if (!floats.hasRemaining()) {
+        fill();
+      }
+      floats.get(row);
+      rowsRead++;
+      return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+
+    // Reads as many whole rows as fit in the buffer
+    private void fill() {
+      int rowSize = row.length * Float.BYTES;
+      long remaining = (long) (rows - rowsRead) * rowSize;
+      buffer.clear().limit((int) Math.min(buffer.capacity() / rowSize * rowSize, remaining));
+
+      try {
+        readFully(buffer);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      floats = buffer.flip().asFloatBuffer();
+    }
+
+    private void readFully(ByteBuffer target) throws IOException {
+      while (target.hasRemaining()) {
+        if (channel.read(target) < 0) {
+          throw new IOException("Unexpected end of matrix file.");
+        }
+      }
+    }
+  }
+
+  // Writes rows one by one; the number of rows is written to the header when closed
+  public static final class RowWriter implements Closeable {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final int cols;
+    private int rows;
+
+    public RowWriter(Path path, int cols) throws IOException {
+      if (cols <= 0) {
+        throw new IllegalArgumentException("Matrix must have at least one column.");
+      }
+
+      this.cols = cols;
+      channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING);
+      buffer = ByteBuffer.allocateDirect(cols * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      channel.position(HEADER_SIZE);
+    }
+
+    public void writeRow(float[] row) throws IOException {
+      if (row.length != cols) {
+        throw new IllegalArgumentException(String.format(
+            "All rows in a matrix must have the same number of columns. Row %d has %d columns but expected %d.",
+            rows, row.length, cols));
+      }
+
+      buffer.clear();
+      buffer.asFloatBuffer().put(row);
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      rows++;
+    }
+
+    @Override
+    public void close() throws IOException {
+      try (channel) {
+        var header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(rows).putInt(cols).flip();
+        while (header.hasRemaining()) {
+          channel.write(header, header.position());
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,42 @@
+import java.lang.foreign.MemorySegment;
+
+// Row kernels of the matrix operations of Lab1. The vectorized implementation is used when the
+// jdk.incubator.vector module is available, unless the lab1.kernels system property is "scalar"
+interface MatrixKernels {
+
+  MatrixKernels INSTANCE = load();
+
+  // XORs the bit patterns of length elements of a and b into out, with NaN inputs taken as the
+  // canonical NaN like Float.floatToIntBits does. Returns the index within the row of the first
+  // NaN result, or -1. Results starting from the first NaN are not written
+  int xorRow(float[] a, int aOffset, float[] b, int bOffset, float[] out, int outOffset,
+      int length);
+
+  // Fused xorRow and maxRow: raises every max[j] to the XOR of a and b elements j without storing
+  // the XOR. Returns the index of the first NaN result, or -1; max is partially updated then
+  int xorMaxRow(float[] a, int aOffset, float[] b, int bOffset, float[] max, int length);
+
+  // Raises every max[j] to row element j if the element is greater, so NaN elements are ignored
+  void maxRow(float[] data, int offset, float[] max, int length);
+
+  // The same kernels over SegmentMatrix data. Offsets are in bytes and are the same in all
+  // segments, since the matrices have the same shape
+  int xorRow(MemorySegment a, MemorySegment b, MemorySegment out, long offset, int length);
+
+  int xorMaxRow(MemorySegment a, MemorySegment b, long offset, float[] max, int length);
+
+  void maxRow(MemorySegment data, long offset, float[] max, int length);
+
+  private static MatrixKernels load() {
+    if (!"scalar".equals(System.getProperty("lab1.kernels"))) {
+      try {
+        return (MatrixKernels) Class.forName("VectorMatrixKernels")
+            .getDeclaredConstructor()
+            .newInstance();
+      } catch (ReflectiveOperationException | LinkageError e) {
+        // The vectorized kernels are not compiled or the module is not added
+      }
+    }
+    return new ScalarMatrixKernels();
+  }
+}
@@ -0,0 +1,95 @@
+import java.lang.foreign.MemorySegment;
+
+final class ScalarMatrixKernels implements MatrixKernels {
+
+  @Override
+  public int xorRow(float[] a, int aOffset, float[] b, int bOffset, float[] out, int outOffset,
+      int length) {
+    for (int j = 0; j < length; j++) {
+      float res = xor(a[aOffset + j], b[bOffset + j]);
+
+      if (Float.isNaN(res)) {
+        return j;
+      }
+      out[outOffset + j] = res;
+    }
+    return -1;
+  }
+
+  @Override
+  public int xorMaxRow(float[] a, int aOffset, float[] b, int bOffset, float[] max, int length) {
+    return xorMaxRow(a, aOffset, b, bOffset, max, 0, length);
+  }
+
+  // xorMaxRow raising max starting from maxOffset, for the tails of the vectorized kernels
+  int xorMaxRow(float[] a, int aOffset, float[] b, int bOffset, float[] max, int maxOffset,
+      int length) {
+    for (int j = 0; j < length; j++) {
+      float res = xor(a[aOffset + j], b[bOffset + j]);
+
+      if (Float.isNaN(res)) {
+        return j;
+      }
+      if (res > max[maxOffset + j]) {
+        max[maxOffset + j] = res;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public void maxRow(float[] data, int offset, float[] max, int length) {
+    for (int j = 0; j < length; j++) {
+      if (data[offset + j] > max[j]) {
+        max[j] = data[offset + j];
+      }
+    }
+  }
+
+  @Override
+  public int xorRow(MemorySegment a, MemorySegment b, MemorySegment out, long offset, int length) {
+    for (int j = 0; j < length; j++, offset += Float.BYTES) {
+      float res = xor(a.get(SegmentMatrix.ELEMENT, offset), b.get(SegmentMatrix.ELEMENT, offset));
+
+      if (Float.isNaN(res)) {
+        return j;
+      }
+      out.set(SegmentMatrix.ELEMENT, offset, res);
+    }
+    return -1;
+  }
+
+  @Override
+  public int xorMaxRow(MemorySegment a, MemorySegment b, long offset, float[] max, int length) {
+    return xorMaxRow(a, b, offset, max, 0, length);
+  }
+
+  int xorMaxRow(MemorySegment a, MemorySegment b, long offset, float[] max, int maxOffset,
+      int length) {
+    for (int j = 0; j < length; j++, offset += Float.BYTES) {
+      float res = xor(a.get(SegmentMatrix.ELEMENT, offset), b.get(SegmentMatrix.ELEMENT, offset));
+
+      if (Float.isNaN(res)) {
+        return j;
+      }
+      if (res > max[maxOffset + j]) {
+        max[maxOffset + j] = res;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public void maxRow(MemorySegment data, long offset, float[] max, int length) {
+    for (int j = 0; j < length; j++, offset += Float.BYTES) {
+      float elem = data.get(SegmentMatrix.ELEMENT, offset);
+      if (elem > max[j]) {
+        max[j] = elem;
+      }
+    }
+  }
+
+  private static float xor(float n1, float n2) {
+    return Float.intBitsToFloat(Float.floatToIntBits(n1) ^ Float.floatToIntBits(n2));
+  }
+}
@@ -0,0 +1,111 @@
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// A matrix of floats stored in row-major order outside the Java heap, either in memory allocated by
+// an arena or in a memory-mapped file of the MatrixFile format. Elements are addressed by long
+// offsets, so the number of elements is limited only by memory or disk. The matrix can be used
+// while its arena is alive
+public final class SegmentMatrix {
+
+  static final ValueLayout.OfFloat ELEMENT =
+      ValueLayout.JAVA_FLOAT.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+  private static final ValueLayout.OfInt HEADER_INT =
+      ValueLayout.JAVA_INT.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+  private final int rows;
+  private final int cols;
+  final MemorySegment data;
+
+  private SegmentMatrix(int rows, int cols, MemorySegment data) {
+    this.rows = rows;
+    this.cols = cols;
+    this.data = data;
+  }
+
+  public static SegmentMatrix allocate(int rows, int cols, Arena arena) {
+    return new SegmentMatrix(rows, cols, arena.allocate(byteSize(rows, cols), Float.BYTES));
+  }
+
+  public static SegmentMatrix copyOf(float[][] m, Arena arena) {
+    var source = FloatMatrix.of(m);
+    var matrix = allocate(source.rows(), source.cols(), arena);
+    MemorySegment.copy(source.data, 0, matrix.data, ELEMENT, 0, source.data.length);
+    return matrix;
+  }
+
+  // Maps an existing matrix file for reading
+  public static SegmentMatrix map(Path path, Arena arena) throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      var file = channel.map(MapMode.READ_ONLY, 0, channel.size(), arena);
+      if (file.byteSize() < MatrixFile.HEADER_SIZE) {
+        throw new IOException("Invalid matrix file " + path + ".");
+      }
+
+      int rows = file.get(HEADER_INT, 0);
+      int cols = file.get(HEADER_INT, Integer.BYTES);
+      if (rows <= 0 || cols <= 0
+          || file.byteSize() != MatrixFile.HEADER_SIZE + (long) rows * cols * Float.BYTES) {
+        throw new IOException("Invalid matrix file " + path + ".");
+      }
+      return new SegmentMatrix(rows, cols, file.asSlice(MatrixFile.HEADER_SIZE));
+    }
+  }
+
+  // Creates or replaces a matrix file of zeros and maps it for reading and writing
+  public static SegmentMatrix create(Path path, int rows, int cols, Arena arena)
+      throws IOException {
+    long size = MatrixFile.HEADER_SIZE + byteSize(rows, cols);
+
+    try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      var file = channel.map(MapMode.READ_WRITE, 0, size, arena);
+      file.set(HEADER_INT, 0, rows);
+      file.set(HEADER_INT, Integer.BYTES, cols);
+      return new SegmentMatrix(rows, cols, file.asSlice(MatrixFile.HEADER_SIZE));
+    }
+  }
+
+  public int rows() {
+    return rows;
+  }
+
+  public int cols() {
+    return cols;
+  }
+
+  public float get(int i, int j) {
+    return data.get(ELEMENT, offset(i, j));
+  }
+
+  // Writes changes of a mapped matrix to its file
+  public void force() {
+    if (data.isMapped()) {
+      data.force();
+    }
+  }
+
+  long offset(int i, int j) {
+    if (i < 0 || i >= rows || j < 0 || j >= cols) {
+      throw new IndexOutOfBoundsException(String.format(
+          "Position (%d, %d) is out of bounds for a %dx%d matrix.", i, j, rows, cols));
+    }
+    return ((long) i * cols + j) * Float.BYTES;
+  }
+
+  private static long byteSize(int rows, int cols) {
+    if (rows <= 0 || cols <= 0) {
+      throw new IllegalArgumentException(String.format(
+          "Matrix must have at least one row and one column. Found %d rows and %d columns.",
+          rows, cols));
+    }
+    return (long) rows * cols * Float.BYTES;
+  }
+}
@@ -0,0 +1,152 @@
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteOrder;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Kernels processing as many elements at once as the widest vector registers of the CPU hold.
+// Needs the jdk.incubator.vector module: compile and run with --add-modules jdk.incubator.vector
+final class VectorMatrixKernels implements MatrixKernels {
+
+  private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Integer> INTS =
+      VectorSpecies.of(int.class, FLOATS.vectorShape());
+  private static final ByteOrder ORDER = SegmentMatrix.ELEMENT.order();
+  private static final int CANONICAL_NAN_BITS = Float.floatToIntBits(Float.NaN);
+
+  private final ScalarMatrixKernels tail = new ScalarMatrixKernels();
+
+  @Override
+  public int xorRow(float[] a, int aOffset, float[] b, int bOffset, float[] out, int outOffset,
+      int length) {
+    int bound = FLOATS.loopBound(length);
+    int j = 0;
+
+    for (; j < bound; j += FLOATS.length()) {
+      var res = xor(FloatVector.fromArray(FLOATS, a, aOffset + j),
+          FloatVector.fromArray(FLOATS, b, bOffset + j));
+
+      VectorMask<Float> nan = res.test(VectorOperators.IS_NAN);
+      if (nan.anyTrue()) {
+        return j + nan.firstTrue();
+      }
+      res.intoArray(out, outOffset + j);
+    }
+
+    int last = tail.xorRow(a, aOffset + j, b, bOffset + j, out, outOffset + j, length - j);
+    return (last < 0) ? -1 : j + last;
+  }
+
+  @Override
+  public int xorMaxRow(float[] a, int aOffset, float[] b, int bOffset, float[] max, int length) {
+    int bound = FLOATS.loopBound(length);
+    int j = 0;
+
+    for (; j < bound; j += FLOATS.length()) {
+      var res = xor(FloatVector.fromArray(FLOATS, a, aOffset + j),
+          FloatVector.fromArray(FLOATS, b, bOffset + j));
+
+      VectorMask<Float> nan = res.test(VectorOperators.IS_NAN);
+      if (nan.anyTrue()) {
+        return j + nan.firstTrue();
+      }
+      var m = FloatVector.fromArray(FLOATS, max, j);
+      m.blend(res, res.compare(VectorOperators.GT, m)).intoArray(max, j);
+    }
+
+    int last = tail.xorMaxRow(a, aOffset + j, b, bOffset + j, max, j, length - j);
+    return (last < 0) ? -1 : j + last;
+  }
+
+  @Override
+  public void maxRow(float[] data, int offset, float[] max, int length) {
+    int bound = FLOATS.loopBound(length);
+    int j = 0;
+
+    for (; j < bound; j += FLOATS.length()) {
+      var v = FloatVector.fromArray(FLOATS, data, offset + j);
+      var m = FloatVector.fromArray(FLOATS, max, j);
+      m.blend(v, v.compare(VectorOperators.GT, m)).intoArray(max, j);
+    }
+
+    for (; j < length; j++) {
+      if (data[offset + j] > max[j]) {
+        max[j] = data[offset + j];
+      }
+    }
+  }
+
+  @Override
+  public int xorRow(MemorySegment a, MemorySegment b, MemorySegment out, long offset, int length) {
+    int bound = FLOATS.loopBound(length);
+    int j = 0;
+
+    for (; j < bound; j += FLOATS.length(), offset += FLOATS.vectorByteSize()) {
+      var res = xor(FloatVector.fromMemorySegment(FLOATS, a, offset, ORDER),
+          FloatVector.fromMemorySegment(FLOATS, b, offset, ORDER));
+
+      VectorMask<Float> nan = res.test(VectorOperators.IS_NAN);
+      if (nan.anyTrue()) {
+        return j + nan.firstTrue();
+      }
+      res.intoMemorySegment(out, offset, ORDER);
+    }
+
+    int last = tail.xorRow(a, b, out, offset, length - j);
+    return (last < 0) ? -1 : j + last;
+  }
+
+  @Override
+  public int xorMaxRow(MemorySegment a, MemorySegment b, long offset, float[] max, int length) {
+    int bound = FLOATS.loopBound(length);
+    int j = 0;
+
+    for (; j < bound; j += FLOATS.length(), offset += FLOATS.vectorByteSize()) {
+      var res = xor(FloatVector.fromMemorySegment(FLOATS, a, offset, ORDER),
+          FloatVector.fromMemorySegment(FLOATS, b, offset, ORDER));
+
+      VectorMask<Float> nan = res.test(VectorOperators.IS_NAN);
+      if (nan.anyTrue()) {
+        return j + nan.firstTrue();
+      }
+      var m = FloatVector.fromArray(FLOATS, max, j);
+      m.blend(res, res.compare(VectorOperators.GT, m)).intoArray(max, j);
+    }
+
+    int last = tail.xorMaxRow(a, b, offset, max, j, length - j);
+    return (last < 0) ? -1 : j + last;
+  }
+
+  @Override
+  public void maxRow(MemorySegment data, long offset, float[] max, int length) {
+    int bound = FLOATS.loopBound(length);
+    int j = 0;
+
+    for (; j < bound; j += FLOATS.length(), offset += FLOATS.vectorByteSize()) {
+      var v = FloatVector.fromMemorySegment(FLOATS, data, offset, ORDER);
+      var m = FloatVector.fromArray(FLOATS, max, j);
+      m.blend(v, v.compare(VectorOperators.GT, m)).intoArray(max, j);
+    }
+
+    for (; j < length; j++, offset += Float.BYTES) {
+      float elem = data.get(SegmentMatrix.ELEMENT, offset);
+      if (elem > max[j]) {
+        max[j] = elem;
+      }
+    }
+  }
+
+  private static FloatVector xor(FloatVector a, FloatVector b) {
+    return canonicalBits(a).lanewise(VectorOperators.XOR, canonicalBits(b))
+        .reinterpretAsFloats();
+  }
+
+  // Bit patterns of the elements with every NaN replaced by the canonical one
+  private static IntVector canonicalBits(FloatVector v) {
+    var bits = v.reinterpretAsInts();
+    return bits.blend(CANONICAL_NAN_BITS, v.test(VectorOperators.IS_NAN).cast(INTS));
+  }
+}
@@ -1,5 +1,21 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
 public class Lab2 {
 
+  // Chunks per thread in the parallel search, so that threads finishing early can take more work,
+  // and the smallest number of centers worth searching in a separate task
+  private static final int CHUNKS_PER_THREAD = 4;
+  private static final int MIN_CHUNK_SIZE = 1 << 12;
+
   public static void main(String[] args) {
     final String TEXT = """
         On a warm day in a quiet town, Eve saw her reflection in a lake. 'Wow!' she whispered.
@@ -14,16 +30,39 @@ public class Lab2 {
 
     try {
 
+      if (args.length > 0) {
+        Palindrome result = longestPalindrome(Path.of(args[0]));
+        System.out.printf("Longest palindrome at bytes [%d, %d): '%s'%n",
+            result.from(), result.to(), result.text());
+        return;
+      }
+
       String result = longestPalindrome(TEXT);
       System.out.printf("Longest palindrome: '%s'%n", result);
 
-    } catch (IllegalArgumentException e) {
+    } catch (IllegalArgumentException | IOException e) {
       System.err.println("Execution failed. " + e.getMessage());
       System.exit(1);
     }
   }
 
   public static String longestPalindrome(String str) {
+    return longestPalindrome(str, null);
+  }
+
+  // Same as longestPalindrome(String), but the centers are split into chunks searched in parallel
+  // by the given number of threads. The characters are shared, so palindromes may extend across
+  // chunks, and chunk results are merged in order, so the result is exactly the same
+  public static String longestPalindrome(String str, int parallelism) {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("Parallelism must be positive.");
+    }
+    try (var pool = new ForkJoinPool(parallelism)) {
+      return longestPalindrome(str, pool);
+    }
+  }
+
+  private static String longestPalindrome(String str, ForkJoinPool pool) {
     if (str == null) {
       throw new IllegalArgumentException("Text string cannot be null.");
     }
@@ -34,44 +73,519 @@ public class Lab2 {
       return str;
     }
 
-    String longest = "";
+    // Letters and digits of the text in lower case, and their positions in the text
+    int[] positions = new int[str.length()];
+    char[] chars = normalize(str, positions);
+    int n = chars.length;
 
-    for (int i = 0; i < str.length(); i++) {
-      String palindrome1 = expandAroundCenter(str, i, i);
-      String palindrome2 = expandAroundCenter(str, i, i + 1);
+    int[] longest;
+    if (pool == null) {
+      longest = new PalindromeTask(str, chars, positions, n).compute();
+    } else {
+      int chunkSize = Math.max(n / (pool.getParallelism() * CHUNKS_PER_THREAD), MIN_CHUNK_SIZE);
+      longest = pool.invoke(new PalindromeTask(str, chars, positions, chunkSize));
+    }
+
+    return str.substring(longest[0], longest[1]);
+  }
+
+  // Offsets in bytes of the palindrome in the file, the end being exclusive, and its text
+  public record Palindrome(long from, long to, String text) {
+
+  }
 
-      String longer = (palindrome1.length() > palindrome2.length())
-          ? palindrome1
-          : palindrome2;
-      longest = (longer.length() > longest.length())
-          ? longer
-          : longest;
+  // Same as longestPalindrome(String) for the text of an ASCII or UTF-8 file, but searches the
+  // memory-mapped file directly instead of reading it into a string
+  public static Palindrome longestPalindrome(Path path) throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return new MappedSearch(channel).search();
     }
+  }
+
+  private static char[] normalize(String str, int[] positions) {
+    char[] chars = new char[str.length()];
+    int n = 0;
+
+    for (int i = 0; i < str.length(); i++) {
+      char c = str.charAt(i);
+      if (Character.isLetterOrDigit(c)) {
+        chars[n] = Character.toLowerCase(c);
+        positions[n] = i;
+        n++;
+      }
+    }
+    return Arrays.copyOf(chars, n);
+  }
+
+  // Manacher's algorithm over the centers in [from, to): radii[i] is the number of characters on
+  // each side of the odd-length palindrome centered at i, including the center itself.
+  // Palindromes may extend beyond the range, but only radii computed in the range are reused
+  private static void oddPalindromeRadii(char[] chars, int[] radii, int from, int to) {
+    int n = chars.length;
 
-    return longest;
+    for (int i = from, left = from, right = from - 1; i < to; i++) {
+      int mirror = left + right - i;
+      int k = (i > right || mirror < from) ? 1 : Math.min(radii[mirror], right - i + 1);
+      while (i - k >= 0 && i + k < n && chars[i - k] == chars[i + k]) {
+        k++;
+      }
+      radii[i] = k--;
+      if (i + k > right) {
+        left = i - k;
+        right = i + k;
+      }
+    }
   }
 
-  private static String expandAroundCenter(String str, int left, int right) {
-    String lowerStr = str.toLowerCase();
-    while (left >= 0 && right < str.length()) {
-      char leftChar = lowerStr.charAt(left);
-      char rightChar = lowerStr.charAt(right);
+  // Manacher's algorithm over the centers in [from, to): radii[i] is the number of characters on
+  // each side of the even-length palindrome centered between i - 1 and i
+  private static void evenPalindromeRadii(char[] chars, int[] radii, int from, int to) {
+    int n = chars.length;
 
-      if (!Character.isLetterOrDigit(leftChar)) {
-        left--;
-      } else if (!Character.isLetterOrDigit(rightChar)) {
-        right++;
-      } else if (leftChar == rightChar) {
-        left--;
-        right++;
-      } else {
-        break;
+    for (int i = from, left = from, right = from - 1; i < to; i++) {
+      int mirror = left + right - i + 1;
+      int k = (i > right || mirror < from) ? 0 : Math.min(radii[mirror], right - i + 1);
+      while (i - k - 1 >= 0 && i + k < n && chars[i - k - 1] == chars[i + k]) {
+        k++;
+      }
+      radii[i] = k--;
+      if (i + k > right) {
+        left = i - k - 1;
+        right = i + k;
       }
     }
-    return trimNonAlphanumeric(str.substring(left + 1, right));
   }
 
   private static String trimNonAlphanumeric(String str) {
-    return str.replaceAll("(^[^a-zA-Z0-9]+|[^a-zA-Z0-9]+$)", "");
+    int from = trimStart(str, 0, str.length());
+    int to = trimEnd(str, from, str.length());
+    return str.substring(from, to);
+  }
+
+  private static int trimStart(String str, int from, int to) {
+    while (from < to && !isAsciiAlphanumeric(str.charAt(from))) {
+      from++;
+    }
+    return from;
+  }
+
+  private static int trimEnd(String str, int from, int to) {
+    while (to > from && !isAsciiAlphanumeric(str.charAt(to - 1))) {
+      to--;
+    }
+    return to;
+  }
+
+  private static boolean isAsciiAlphanumeric(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+  }
+
+  // Searches the centers in [from, to) for the longest palindrome, splitting the range in halves
+  // until it is at most chunkSize long. Radii arrays are shared, each chunk filling its own part
+  private static final class PalindromeTask extends RecursiveTask<int[]> {
+
+    private final String str;
+    private final char[] chars;
+    private final int[] positions;
+    private final int[] oddRadii;
+    private final int[] evenRadii;
+    private final int from;
+    private final int to;
+    private final int chunkSize;
+
+    PalindromeTask(String str, char[] chars, int[] positions, int chunkSize) {
+      this(str, chars, positions, new int[chars.length], new int[chars.length], 0, chars.length,
+          chunkSize);
+    }
+
+    private PalindromeTask(String str, char[] chars, int[] positions, int[] oddRadii,
+        int[] evenRadii, int from, int to, int chunkSize) {
+      this.str = str;
+      this.chars = chars;
+      this.positions = positions;
+      this.oddRadii = oddRadii;
+      this.evenRadii = evenRadii;
+      this.from = from;
+      this.to = to;
+      this.chunkSize = chunkSize;
+    }
+
+    // The right half wins only if its palindrome is strictly longer, as in a sequential search
+    @Override
+    protected int[] compute() {
+      if (to - from <= chunkSize) {
+        return search();
+      }
+
+      int middle = (from + to) >>> 1;
+      var left = new PalindromeTask(str, chars, positions, oddRadii, evenRadii, from, middle,
+          chunkSize);
+      var right = new PalindromeTask(str, chars, positions, oddRadii, evenRadii, middle, to,
+          chunkSize);
+
+      right.fork();
+      int[] leftResult = left.compute();
+      int[] rightResult = right.join();
+
+      return (rightResult[1] - rightResult[0] > leftResult[1] - leftResult[0])
+          ? rightResult
+          : leftResult;
+    }
+
+    // The candidate at i is the odd-length palindrome centered at i or the even-length one
+    // centered between i and i + 1, so even radii are computed one position further
+    private int[] search() {
+      int n = chars.length;
+      oddPalindromeRadii(chars, oddRadii, from, to);
+      evenPalindromeRadii(chars, evenRadii, from + 1, Math.min(to + 1, n));
+
+      int longestFrom = 0;
+      int longestTo = 0;
+
+      for (int i = from; i < to; i++) {
+        int odd = oddRadii[i];
+        int from1 = trimStart(str, positions[i - odd + 1], positions[i + odd - 1] + 1);
+        int to1 = trimEnd(str, from1, positions[i + odd - 1] + 1);
+
+        int even = (i + 1 < n) ? evenRadii[i + 1] : 0;
+        int from2 = 0;
+        int to2 = 0;
+        if (even > 0) {
+          from2 = trimStart(str, positions[i - even + 1], positions[i + even] + 1);
+          to2 = trimEnd(str, from2, positions[i + even] + 1);
+        }
+
+        boolean oddIsLonger = to1 - from1 > to2 - from2;
+        int longerFrom = oddIsLonger ? from1 : from2;
+        int longerTo = oddIsLonger ? to1 : to2;
+
+        if (longerTo - longerFrom > longestTo - longestFrom) {
+          longestFrom = longerFrom;
+          longestTo = longerTo;
+        }
+      }
+      return new int[] {longestFrom, longestTo};
+    }
+  }
+
+  // Searches the memory-mapped bytes of a file. The file is mapped in chunks of 1 GiB, so files
+  // over 2 GiB are supported. Only ASCII letters and digits take part in palindromes; bytes of
+  // multi-byte UTF-8 characters are treated as separators. Positions and radii are kept only for a
+  // window of recent characters, which grows only while it is shorter than a palindrome whose radii
+  // are still needed, so memory depends on the longest palindrome rather than the size of the file
+  private static final class MappedSearch {
+
+    private static final int CHUNK_BITS = 30;
+    private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+    private static final int WINDOW = 1 << 16;
+
+    private final MappedByteBuffer[] chunks;
+    private final long size;
+
+    // Positions and palindrome radii of the most recent alphanumeric characters, indexed by the
+    // index of the character modulo the window size
+    private long[] positions = new long[WINDOW];
+    private int[] oddRadii = new int[WINDOW];
+    private int[] evenRadii = new int[WINDOW];
+    private int windowMask = WINDOW - 1;
+
+    // The index of the first character in the window, and of the first one that must stay in it:
+    // no character from it on is replaced by a new one, and the window grows instead
+    private long windowStart;
+    private long keptFrom;
+
+    private long alphanumericCount;
+    private long scanPosition;
+
+    // The mappings stay valid after the channel is closed
+    MappedSearch(FileChannel channel) throws IOException {
+      size = channel.size();
+      chunks = new MappedByteBuffer[(int) ((size + CHUNK_MASK) >>> CHUNK_BITS)];
+
+      for (int i = 0; i < chunks.length; i++) {
+        long start = (long) i << CHUNK_BITS;
+        chunks[i] = channel.map(MapMode.READ_ONLY, start, Math.min(CHUNK_MASK + 1, size - start));
+      }
+    }
+
+    Palindrome search() {
+      long longestFrom = 0;
+      long longestTo = 0;
+
+      long oddLeft = 0;
+      long oddRight = -1;
+      long evenLeft = 0;
+      long evenRight = -1;
+
+      // The odd-length palindrome centered at the previous character, compared with the
+      // even-length palindrome centered between the previous and the current character
+      long previousFrom = 0;
+      long previousTo = 0;
+
+      long center = nextAlphanumeric(-1, 0);
+      for (long i = 0; center >= 0; i++) {
+
+        // The characters of the palindromes around the current center, whose radii are reused
+        // through their mirrors, and the character before them are kept in the window
+        long boxLeft = i;
+        if (i <= oddRight) {
+          boxLeft = Math.min(boxLeft, oddLeft);
+        }
+        if (i <= evenRight) {
+          boxLeft = Math.min(boxLeft, evenLeft);
+        }
+        keptFrom = boxLeft - 1;
+
+        // Positions of the first and the last character of the palindrome found so far
+        long from = center;
+        long to = center;
+        int k = 1;
+        if (i <= oddRight) {
+          k = (int) Math.min(oddRadii[slot(oddLeft + oddRight - i)], oddRight - i + 1);
+          from = positions[slot(i - k + 1)];
+          to = positions[slot(i + k - 1)];
+        }
+
+        keep(i - k - 1);
+        long left = previousAlphanumeric(from, i - k);
+        long right = nextAlphanumeric(to, i + k);
+        while (left >= 0 && right >= 0 && sameCharacters(left, right)) {
+          k++;
+          from = left;
+          to = right;
+          keep(i - k - 1);
+          left = previousAlphanumeric(left, i - k);
+          right = nextAlphanumeric(right, i + k);
+        }
+
+        oddRadii[slot(i)] = k;
+        if (i + k - 1 > oddRight) {
+          oddLeft = i - k + 1;
+          oddRight = i + k - 1;
+          if (oddLeft < windowStart) {
+            refill(oddLeft, from);
+          }
+        }
+        long oddFrom = from;
+        long oddTo = to + 1;
+
+        k = 0;
+        if (i <= evenRight) {
+          k = (int) Math.min(evenRadii[slot(evenLeft + evenRight - i + 1)], evenRight - i + 1);
+        }
+
+        if (k > 0) {
+          from = positions[slot(i - k)];
+          to = positions[slot(i + k - 1)];
+          keep(i - k - 2);
+          left = previousAlphanumeric(from, i - k - 1);
+          right = nextAlphanumeric(to, i + k);
+        } else {
+          left = previousAlphanumeric(center, i - 1);
+          right = center;
+        }
+        while (left >= 0 && right >= 0 && sameCharacters(left, right)) {
+          k++;
+          from = left;
+          to = right;
+          keep(i - k - 2);
+          left = previousAlphanumeric(left, i - k - 1);
+          right = nextAlphanumeric(right, i + k);
+        }
+
+        evenRadii[slot(i)] = k;
+        if (i + k - 1 > evenRight) {
+          evenLeft = i - k;
+          evenRight = i + k - 1;
+          if (evenLeft < windowStart) {
+            refill(evenLeft, from);
+          }
+        }
+        long evenFrom = (k > 0) ? from : 0;
+        long evenTo = (k > 0) ? to + 1 : 0;
+
+        if (i > 0) {
+          boolean oddIsLonger = previousTo - previousFrom > evenTo - evenFrom;
+          long longerFrom = oddIsLonger ? previousFrom : evenFrom;
+          long longerTo = oddIsLonger ? previousTo : evenTo;
+
+          if (longerTo - longerFrom > longestTo - longestFrom) {
+            longestFrom = longerFrom;
+            longestTo = longerTo;
+          }
+        }
+        previousFrom = oddFrom;
+        previousTo = oddTo;
+
+        center = nextAlphanumeric(center, i + 1);
+      }
+
+      if (previousTo - previousFrom > longestTo - longestFrom) {
+        longestFrom = previousFrom;
+        longestTo = previousTo;
+      }
+      return new Palindrome(longestFrom, longestTo, extract(longestFrom, longestTo));
+    }
+
+    private long nextAlphanumeric(long position, long index) {
+      if (index < alphanumericCount) {
+        if (inWindow(index)) {
+          return positions[slot(index)];
+        }
+        long p = position + 1;
+        while (!isAsciiAlphanumeric(byteAt(p))) {
+          p++;
+        }
+        return p;
+      }
+
+      for (long p = scanPosition; p < size; p++) {
+        if (isAsciiAlphanumeric(byteAt(p))) {
+          long replaced = alphanumericCount - positions.length;
+          if (replaced >= windowStart && replaced >= keptFrom) {
+            growWindow();
+          }
+          positions[slot(alphanumericCount++)] = p;
+          windowStart = Math.max(windowStart, alphanumericCount - positions.length);
+          scanPosition = p + 1;
+          return p;
+        }
+      }
+      scanPosition = size;
+      return -1;
+    }
+
+    private long previousAlphanumeric(long position, long index) {
+      if (index < 0) {
+        return -1;
+      }
+      if (inWindow(index)) {
+        return positions[slot(index)];
+      }
+      for (long p = position - 1; p >= 0; p--) {
+        if (isAsciiAlphanumeric(byteAt(p))) {
+          return p;
+        }
+      }
+      return -1;
+    }
+
+    private void keep(long index) {
+      keptFrom = Math.min(keptFrom, index);
+    }
+
+    // Brings the characters before the window back into it, after a palindrome starting before
+    // the window has been found, so that the radii of its left half can be reused through their
+    // mirrors. Their radii are found again by Manacher's algorithm over the characters from the
+    // first one brought back, which cuts them where the mirrored palindrome starts anyway. No more
+    // characters are brought back than the palindrome has just been extended by, so the search
+    // stays linear
+    private void refill(long index, long position) {
+      while (alphanumericCount - index > positions.length) {
+        growWindow();
+      }
+
+      long end = windowStart;
+      windowStart = index;
+      for (long j = index; j < end; j++) {
+        positions[slot(j)] = position;
+        do {
+          position++;
+        } while (j + 1 < end && !isAsciiAlphanumeric(byteAt(position)));
+      }
+
+      long oddLeft = 0;
+      long oddRight = -1;
+      long evenLeft = 0;
+      long evenRight = -1;
+      for (long j = index; j < end; j++) {
+        int k = 1;
+        if (j <= oddRight) {
+          k = (int) Math.min(oddRadii[slot(oddLeft + oddRight - j)], oddRight - j + 1);
+        }
+        while (j - k >= index && j + k < alphanumericCount && sameCharacterAt(j - k, j + k)) {
+          k++;
+        }
+        oddRadii[slot(j)] = k;
+        if (j + k - 1 > oddRight) {
+          oddLeft = j - k + 1;
+          oddRight = j + k - 1;
+        }
+
+        k = 0;
+        if (j <= evenRight) {
+          k = (int) Math.min(evenRadii[slot(evenLeft + evenRight - j + 1)], evenRight - j + 1);
+        }
+        while (j - k - 1 >= index && j + k < alphanumericCount
+            && sameCharacterAt(j - k - 1, j + k)) {
+          k++;
+        }
+        evenRadii[slot(j)] = k;
+        if (j + k - 1 > evenRight) {
+          evenLeft = j - k;
+          evenRight = j + k - 1;
+        }
+      }
+    }
+
+    // Doubles the size of the window, moving the kept characters to their slots in the larger one
+    private void growWindow() {
+      int capacity = positions.length * 2;
+      if (capacity < 0) {
+        throw new IllegalArgumentException("Palindrome is too long to be searched.");
+      }
+      var newPositions = new long[capacity];
+      var newOddRadii = new int[capacity];
+      var newEvenRadii = new int[capacity];
+      int newMask = capacity - 1;
+
+      for (long index = windowStart; index < alphanumericCount; index++) {
+        int from = slot(index);
+        int to = (int) (index & newMask);
+        newPositions[to] = positions[from];
+        newOddRadii[to] = oddRadii[from];
+        newEvenRadii[to] = evenRadii[from];
+      }
+
+      positions = newPositions;
+      oddRadii = newOddRadii;
+      evenRadii = newEvenRadii;
+      windowMask = newMask;
+    }
+
+    private boolean inWindow(long index) {
+      return index >= windowStart && index < alphanumericCount;
+    }
+
+    private int slot(long index) {
+      return (int) (index & windowMask);
+    }
+
+    private boolean sameCharacterAt(long leftIndex, long rightIndex) {
+      return sameCharacters(positions[slot(leftIndex)], positions[slot(rightIndex)]);
+    }
+
+    private boolean sameCharacters(long left, long right) {
+      return (byteAt(left) | 0x20) == (byteAt(right) | 0x20);
+    }
+
+    private byte byteAt(long position) {
+      return chunks[(int) (position >>> CHUNK_BITS)].get((int) (position & CHUNK_MASK));
+    }
+
+    private static boolean isAsciiAlphanumeric(byte b) {
+      return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9');
+    }
+
+    private String extract(long from, long to) {
+      if (to - from > Integer.MAX_VALUE - 8) {
+        throw new IllegalArgumentException("Palindrome is too long to be extracted.");
+      }
+      var bytes = new byte[(int) (to - from)];
+      for (int i = 0; i < bytes.length; i++) {
+        bytes[i] = byteAt(from + i);
+      }
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
   }
 }
@@ -0,0 +1,150 @@
+import java.text.DecimalFormatSymbols;
+import java.util.Formatter;
+import java.util.Locale;
+
+/**
+ * Appends numbers to a {@link StringBuilder} exactly as the {@code %<width>.<precision>f} and
+ * {@code %<width>d} conversions of {@link String#format(String, Object...)} print them, without
+ * creating a {@link Formatter} for each number.
+ * <p>
+ * Non-negative numbers are rounded and printed by hand. Negative and very large numbers, numbers
+ * lying too close to a rounding tie to be rounded reliably in binary, and all numbers in locales
+ * with other digits or another decimal separator are passed to a {@code Formatter}, so the output
+ * is always the same as the one of {@code String.format}.
+ * </p>
+ */
+final class FixedPoint {
+
+  /**
+   * The powers of ten by which numbers are scaled for each supported precision.
+   */
+  private static final double[] SCALES = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6};
+
+  /**
+   * The upper bound of the scaled numbers rounded by hand. Below it the error of scaling is far
+   * smaller than {@link #TIE_MARGIN}.
+   */
+  private static final double MAX_SCALED = 1e12;
+
+  /**
+   * The least distance from a rounding tie at which a scaled number is rounded by hand.
+   */
+  private static final double TIE_MARGIN = 1e-3;
+
+  /**
+   * The default locale for formatting together with whether it prints numbers as ASCII digits with
+   * a {@code '.'} decimal separator. Replaced when the default locale changes.
+   */
+  private static LocaleDigits localeDigits =
+      LocaleDigits.of(Locale.getDefault(Locale.Category.FORMAT));
+
+  private FixedPoint() {
+  }
+
+  /**
+   * Appends a number right-aligned in a field, as {@code %<width>.<precision>f} does.
+   *
+   * @param sb        the builder to append to
+   * @param value     the number to append
+   * @param width     the minimum number of characters, or zero for no padding
+   * @param precision the number of digits after the decimal separator, from 1 to 6
+   * @return the builder
+   */
+  static StringBuilder append(StringBuilder sb, double value, int width, int precision) {
+    double scaled = value * SCALES[precision];
+    double floor = Math.floor(scaled);
+    double fraction = scaled - floor;
+
+    if (!(value >= 0 && scaled < MAX_SCALED) || Double.doubleToRawLongBits(value) < 0
+        || Math.abs(fraction - 0.5) < TIE_MARGIN || !usesAsciiDigits()) {
+      new Formatter(sb).format(spec(width) + "." + precision + "f", value);
+      return sb;
+    }
+
+    long units = (long) floor + (fraction > 0.5 ? 1 : 0);
+    long unit = (long) SCALES[precision];
+    long integer = units / unit;
+    long decimals = units % unit;
+
+    pad(sb, width - (digitCount(integer) + 1 + precision));
+    sb.append(integer).append('.');
+    pad(sb, precision - digitCount(decimals), '0');
+    return sb.append(decimals);
+  }
+
+  /**
+   * Appends an integer right-aligned in a field, as {@code %<width>d} does.
+   *
+   * @param sb    the builder to append to
+   * @param value the integer to append
+   * @param width the minimum number of characters, or zero for no padding
+   * @return the builder
+   */
+  static StringBuilder append(StringBuilder sb, int value, int width) {
+    if (!usesAsciiDigits()) {
+      new Formatter(sb).format(spec(width) + "d", value);
+      return sb;
+    }
+    pad(sb, width - (digitCount(Math.abs((long) value)) + (value < 0 ? 1 : 0)));
+    return sb.append(value);
+  }
+
+  private static String spec(int width) {
+    return (width > 0) ? "%" + width : "%";
+  }
+
+  private static void pad(StringBuilder sb, int count) {
+    pad(sb, count, ' ');
+  }
+
+  private static void pad(StringBuilder sb, int count, char c) {
+    for (int i = 0; i < count; i++) {
+      sb.append(c);
+    }
+  }
+
+  /**
+   * Returns the number of decimal digits of a non-negative number, with a single digit for zero.
+   *
+   * @param value the number
+   * @return the number of digits
+   */
+  private static int digitCount(long value) {
+    int count = 1;
+    for (long limit = 10; count < 19 && value >= limit; limit *= 10) {
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Checks whether the current default locale prints numbers as ASCII digits with a {@code '.'}
+   * decimal separator.
+   *
+   * @return {@code true} if numbers can be printed by hand
+   */
+  private static boolean usesAsciiDigits() {
+    Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+    LocaleDigits digits = localeDigits;
+    if (digits.locale != locale) {
+      localeDigits = digits = LocaleDigits.of(locale);
+    }
+    return digits.ascii;
+  }
+
+  /**
+   * A locale together with whether it prints numbers as ASCII digits with a {@code '.'} decimal
+   * separator.
+   *
+   * @param locale the locale
+   * @param ascii  {@code true} if the locale prints numbers as {@code String.valueOf} does
+   */
+  private record LocaleDigits(Locale locale, boolean ascii) {
+
+    static LocaleDigits of(Locale locale) {
+      var symbols = DecimalFormatSymbols.getInstance(locale);
+      return new LocaleDigits(locale,
+          symbols.getZeroDigit() == '0' && symbols.getDecimalSeparator() == '.');
+    }
+  }
+}
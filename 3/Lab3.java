@@ -1,18 +1,90 @@
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Demonstrates sorting and searching functionality for an array of Plane objects.
  */
 public class Lab3 {
 
+  /**
+   * The number of lowest bits of a sort key holding the index of the plane.
+   */
+  private static final int INDEX_BITS = 31;
+
+  /**
+   * The mask selecting the index of the plane from a sort key.
+   */
+  private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+  /**
+   * The number of bits sorted by one pass of the radix sort. The 33 bits above the index are
+   * sorted in three passes.
+   */
+  private static final int DIGIT_BITS = 11;
+
+  /**
+   * The smallest number of planes sorted or searched in parallel. Smaller arrays are processed
+   * faster by a single thread.
+   */
+  private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+  /**
+   * The number of chunks per thread in the parallel search, so that threads finishing early can
+   * take more work.
+   */
+  private static final int CHUNKS_PER_THREAD = 4;
+
+  /**
+   * The smallest number of planes searched by a separate task.
+   */
+  private static final int MIN_CHUNK_SIZE = 1 << 12;
+
+  /**
+   * The number of planes compared by a search task between checks of whether an earlier match has
+   * been found.
+   */
+  private static final int CANCEL_CHECK_INTERVAL = 1 << 10;
+
+  /**
+   * The number of sorted planes printed for a fleet file.
+   */
+  private static final int PRINTED_PLANES = 20;
+
+  /**
+   * The number of characters collected before they are passed to the writer in
+   * {@link #writePlanes(Plane[], Writer)}.
+   */
+  private static final int WRITE_BUFFER_SIZE = 1 << 13;
+
   /**
    * The entry point of the Lab3 application. Creates an array of predefined planes, sorts it, and
-   * searches for a specific plane.
+   * searches the sorted array for a specific plane by binary search.
+   * <p>
+   * If a path to a fleet file is given, the fleet is loaded into a {@link PlaneTable} instead and
+   * its first sorted planes are printed. Files with the {@code .csv} extension are read as CSV and
+   * all others as binary files of {@link PlaneFile}.
+   * </p>
    *
-   * @param args command-line arguments (not used)
+   * @param args command-line arguments: an optional path to a fleet file
    */
   public static void main(String[] args) {
+    if (args.length > 0) {
+      try {
+        printSortedFleet(Path.of(args[0]));
+      } catch (IOException e) {
+        System.err.println("Execution failed. " + e.getMessage());
+        System.exit(1);
+      }
+      return;
+    }
+
     Plane[] planes = new Plane[]{
         new Plane("747-8", "Boeing", 988.0f, 1969, false),
         new Plane("A380", "Airbus", 1020.0f, 2005, false),
@@ -38,7 +110,7 @@ public class Lab3 {
     }
 
     Plane plane = new Plane("Concorde", "Aérospatiale/BAC", 2179.0f, 1969, false);
-    int index = findIdenticalPlane(planes, plane);
+    int index = PlaneIndex.binarySearch(planes, plane);
 
     if (index != -1) {
       System.out.println("2. Found plane:");
@@ -49,6 +121,49 @@ public class Lab3 {
     }
   }
 
+  /**
+   * Loads a fleet file into a table, sorts its rows and prints the first of them.
+   *
+   * @param path the path to the fleet file
+   * @throws IOException if the file cannot be read or is invalid
+   */
+  private static void printSortedFleet(Path path) throws IOException {
+    PlaneTable table;
+    try (var reader = path.toString().endsWith(".csv")
+        ? PlaneFile.readCsv(path)
+        : PlaneFile.readBinary(path)) {
+      table = PlaneTable.of(reader);
+    }
+
+    int[] rows = table.sortedRows();
+    int shown = Math.min(rows.length, PRINTED_PLANES);
+    System.out.printf("1. First %d of %d sorted planes:%n", shown, rows.length);
+    var out = new OutputStreamWriter(System.out, System.out.charset());
+    table.writeRows(Arrays.copyOf(rows, shown), out);
+    out.flush();
+  }
+
+  /**
+   * Writes an array of Plane objects to a writer, one line per plane as returned by
+   * {@link Plane#toString()}. The planes are appended to a reusable buffer, so a string is not
+   * created for each of them.
+   *
+   * @param planes an array of Plane objects to write
+   * @param out    the writer to write to
+   * @throws IOException if the writer fails
+   */
+  public static void writePlanes(Plane[] planes, Writer out) throws IOException {
+    var sb = new StringBuilder(WRITE_BUFFER_SIZE + 256);
+    for (Plane plane : planes) {
+      plane.appendTo(sb).append('\n');
+      if (sb.length() >= WRITE_BUFFER_SIZE) {
+        out.append(sb);
+        sb.setLength(0);
+      }
+    }
+    out.append(sb);
+  }
+
   /**
    * Sorts an array of Plane objects by production status (not in production first) and then by
    * maximum speed in descending order.
@@ -61,6 +176,125 @@ public class Lab3 {
         .thenComparing((Plane p) -> p.maxSpeed, Comparator.reverseOrder()));
   }
 
+  /**
+   * Sorts an array of Plane objects in the same order as {@link #sortPlanes(Plane[])}, but
+   * compares encoded primitive keys instead of calling a comparator.
+   * <p>
+   * Each plane is encoded into a {@code long} with its production status in the highest bit, the
+   * bits of its maximum speed in the next 32 bits and its index in the lowest 31 bits. The speed
+   * bits are transformed so that their unsigned order is the descending order of
+   * {@link Float#compare(float, float)}, so the keys are ordered exactly as the planes are by the
+   * comparator. The keys are sorted by a stable LSD radix sort over the 33 bits above the index,
+   * and ties keep their original order, as in {@link #sortPlanes(Plane[])}.
+   * </p>
+   *
+   * @param planes an array of Plane objects to be sorted
+   */
+  public static void radixSortPlanes(Plane[] planes) {
+    long[] keys = new long[planes.length];
+    for (int i = 0; i < planes.length; i++) {
+      keys[i] = sortKey(planes[i], i);
+    }
+
+    radixSort(keys);
+
+    Plane[] unsorted = planes.clone();
+    for (int i = 0; i < keys.length; i++) {
+      planes[i] = unsorted[(int) (keys[i] & INDEX_MASK)];
+    }
+  }
+
+  /**
+   * Sorts an array of Plane objects in the same order as {@link #sortPlanes(Plane[])} using all
+   * available processors.
+   * <p>
+   * The planes are encoded into keys as by {@link #radixSortPlanes(Plane[])}, and the keys are
+   * sorted by {@link Arrays#parallelSort(long[])}. Since every key includes the index of its plane,
+   * no two keys are equal and the result is stable although the sort itself is not. Arrays shorter
+   * than {@code PARALLEL_THRESHOLD} are sorted by {@link #radixSortPlanes(Plane[])} instead.
+   * </p>
+   *
+   * @param planes an array of Plane objects to be sorted
+   */
+  public static void parallelSortPlanes(Plane[] planes) {
+    if (planes.length < PARALLEL_THRESHOLD) {
+      radixSortPlanes(planes);
+      return;
+    }
+
+    // The keys are sorted as signed values, so their highest bit is flipped to keep their order
+    long[] keys = new long[planes.length];
+    Arrays.parallelSetAll(keys, i -> sortKey(planes[i], i) ^ Long.MIN_VALUE);
+
+    Arrays.parallelSort(keys);
+
+    Plane[] unsorted = planes.clone();
+    Arrays.parallelSetAll(planes, i -> unsorted[(int) (keys[i] & INDEX_MASK)]);
+  }
+
+  /**
+   * Encodes the sort key of a plane together with its index.
+   *
+   * @param plane the plane to encode
+   * @param index the index of the plane in the array
+   * @return the key whose unsigned order is the order of {@link #sortPlanes(Plane[])}, followed by
+   * the index
+   */
+  private static long sortKey(Plane plane, int index) {
+    int bits = Float.floatToIntBits(plane.maxSpeed);
+    // Flipping all bits of negative values and only the sign bit of others makes the unsigned
+    // order of the bits the ascending order of the floats; inverting that gives the descending one
+    int descending = ~(bits ^ ((bits >> 31) | Integer.MIN_VALUE));
+
+    long production = plane.inProduction ? 1L << 63 : 0;
+    return production | (Integer.toUnsignedLong(descending) << INDEX_BITS) | index;
+  }
+
+  /**
+   * Sorts keys by their bits above the index in {@code DIGIT_BITS}-bit digits, from the lowest
+   * digit to the highest. Each pass is a stable counting sort, so keys with equal bits above the
+   * index stay in the order of their indices. Passes where all keys have the same digit are
+   * skipped.
+   *
+   * @param keys the keys to sort
+   */
+  private static void radixSort(long[] keys) {
+    long[] source = keys;
+    long[] target = new long[keys.length];
+    int[] counts = new int[1 << DIGIT_BITS];
+
+    for (int shift = INDEX_BITS; shift < Long.SIZE; shift += DIGIT_BITS) {
+      Arrays.fill(counts, 0);
+      for (long key : source) {
+        counts[digit(key, shift)]++;
+      }
+      if (keys.length == 0 || counts[digit(source[0], shift)] == keys.length) {
+        continue;
+      }
+
+      for (int d = 0, start = 0; d < counts.length; d++) {
+        int count = counts[d];
+        counts[d] = start;
+        start += count;
+      }
+      for (long key : source) {
+        target[counts[digit(key, shift)]++] = key;
+      }
+
+      long[] sorted = target;
+      target = source;
+      source = sorted;
+    }
+
+    if (source != keys) {
+      System.arraycopy(source, 0, keys, 0, keys.length);
+    }
+  }
+
+  private static int digit(long key, int shift) {
+    return (int) (key >>> shift) & ((1 << DIGIT_BITS) - 1);
+  }
+
   /**
    * Searches for a plane in an array of planes that is identical to the specified plane.
    *
@@ -77,4 +311,118 @@ public class Lab3 {
     }
     return -1;
   }
+
+  /**
+   * Searches the remaining planes of a file for a plane identical to the specified plane. The
+   * planes are compared as they are read, and reading stops at the first match.
+   *
+   * @param reader the reader of the file
+   * @param plane  the Plane object to find
+   * @return the index of the identical plane among the planes read by this call if found, or
+   * {@code -1} if no identical plane is found
+   * @throws IOException if the file cannot be read or is invalid
+   * @see PlaneFile.Reader#matches(Plane)
+   */
+  public static long findIdenticalPlane(PlaneFile.Reader reader, Plane plane) throws IOException {
+    for (long i = 0; reader.next(); i++) {
+      if (reader.matches(plane)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Searches for a plane in an array of planes that is identical to the specified plane, splitting
+   * the array into chunks searched in parallel by the specified number of threads.
+   * <p>
+   * The lowest index of a match found so far is shared by all tasks. A task stops as soon as it
+   * reaches that index, since any match after it cannot be the first one, so the other workers are
+   * cancelled once an earlier match is found. The result is the same as the one of
+   * {@link #findIdenticalPlane(Plane[], Plane)}. Arrays shorter than {@code PARALLEL_THRESHOLD} are
+   * searched by a single thread.
+   * </p>
+   *
+   * @param planes      an array of Plane objects to search
+   * @param plane       the Plane object to find
+   * @param parallelism the number of threads
+   * @return the lowest index of an identical plane if found, or {@code -1} if no identical plane is
+   * found
+   * @throws IllegalArgumentException if {@code parallelism} is not positive
+   * @see Plane#equals(Object)
+   */
+  public static int findIdenticalPlane(Plane[] planes, Plane plane, int parallelism) {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("Parallelism must be positive.");
+    }
+    if (parallelism == 1 || planes.length < PARALLEL_THRESHOLD) {
+      return findIdenticalPlane(planes, plane);
+    }
+
+    int chunkSize = Math.max(planes.length / (parallelism * CHUNKS_PER_THREAD), MIN_CHUNK_SIZE);
+    var found = new AtomicInteger(Integer.MAX_VALUE);
+    try (var pool = new ForkJoinPool(parallelism)) {
+      pool.invoke(new SearchTask(planes, plane, found, 0, planes.length, chunkSize));
+    }
+
+    int index = found.get();
+    return (index == Integer.MAX_VALUE) ? -1 : index;
+  }
+
+  /**
+   * A private static nested class representing a search of a range of planes, split in halves while
+   * it is larger than the chunk size.
+   */
+  private static final class SearchTask extends RecursiveAction {
+
+    private final Plane[] planes;
+    private final Plane plane;
+
+    /**
+     * The lowest index of an identical plane found so far by any task, or
+     * {@link Integer#MAX_VALUE} if none is found yet.
+     */
+    private final AtomicInteger found;
+
+    private final int from;
+    private final int to;
+    private final int chunkSize;
+
+    SearchTask(Plane[] planes, Plane plane, AtomicInteger found, int from, int to,
+        int chunkSize) {
+      this.planes = planes;
+      this.plane = plane;
+      this.found = found;
+      this.from = from;
+      this.to = to;
+      this.chunkSize = chunkSize;
+    }
+
+    @Override
+    protected void compute() {
+      if (from >= found.get()) {
+        return;
+      }
+
+      if (to - from > chunkSize) {
+        int middle = (from + to) >>> 1;
+        invokeAll(new SearchTask(planes, plane, found, from, middle, chunkSize),
+            new SearchTask(planes, plane, found, middle, to, chunkSize));
+        return;
+      }
+
+      for (int start = from; start < to; start += CANCEL_CHECK_INTERVAL) {
+        int end = Math.min(start + CANCEL_CHECK_INTERVAL, to);
+        if (start >= found.get()) {
+          return;
+        }
+        for (int i = start; i < end; i++) {
+          if (plane.equals(planes[i])) {
+            found.accumulateAndGet(i, Math::min);
+            return;
+          }
+        }
+      }
+    }
+  }
 }
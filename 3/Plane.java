@@ -29,6 +29,11 @@ public class Plane {
    */
   public final boolean inProduction;
 
+  /**
+   * The string representation of this plane, built on the first call to {@link #toString()}.
+   */
+  private String string;
+
   /**
    * Constructs a Plane instance with the specified details.
    *
@@ -73,18 +78,82 @@ public class Plane {
   }
 
   /**
-   * Returns a string representation of this Plane instance.
+   * Returns a hash code for this plane, consistent with {@link #equals(Object)}.
+   * <p>
+   * Since {@code 0.0f == -0.0f}, both zero speeds have the same hash code.
+   *
+   * @return the hash code computed from all fields of this plane
+   */
+  @Override
+  public int hashCode() {
+    int h = model.hashCode();
+    h = 31 * h + manufacturer.hashCode();
+    h = 31 * h + Float.hashCode(maxSpeed + 0.0f);
+    h = 31 * h + firstFlightYear;
+    return 31 * h + Boolean.hashCode(inProduction);
+  }
+
+  /**
+   * Returns a string representation of this Plane instance. Since planes are immutable, the string
+   * is built once and cached.
    *
    * @return a formatted string containing the plane's model, manufacturer, maximum speed, first
    * flight year, and production status
    */
   @Override
   public String toString() {
-    String model = "'" + this.model + "'";
-    String manufacturer = "'" + this.manufacturer + "'";
-    String inProduction = this.inProduction ? "✓" : "✗";
+    String s = string;
+    if (s == null) {
+      string = s = appendTo(new StringBuilder(96)).toString();
+    }
+    return s;
+  }
 
-    return String.format("Plane{ %-24s %-32s %8.2f   %4d   %s }",
-        model, manufacturer, maxSpeed, firstFlightYear, inProduction);
+  /**
+   * Appends the string representation of this plane, as returned by {@link #toString()}, to a
+   * builder.
+   *
+   * @param sb the builder to append to
+   * @return the builder
+   */
+  public StringBuilder appendTo(StringBuilder sb) {
+    return append(sb, model, manufacturer, maxSpeed, firstFlightYear, inProduction);
+  }
+
+  /**
+   * Appends the string representation of a plane with the specified details to a builder, in the
+   * same fixed-width layout as {@code String.format("Plane{ %-24s %-32s %8.2f   %4d   %s }", ...)}
+   * but without a {@link java.util.Formatter}.
+   *
+   * @param sb              the builder to append to
+   * @param model           the model name of the plane
+   * @param manufacturer    the manufacturer of the plane
+   * @param maxSpeed        the maximum speed of the plane
+   * @param firstFlightYear the year of the plane's first flight
+   * @param inProduction    whether the plane is still in production
+   * @return the builder
+   */
+  static StringBuilder append(StringBuilder sb, String model, String manufacturer,
+      float maxSpeed, int firstFlightYear, boolean inProduction) {
+    appendQuoted(sb.append("Plane{ "), model, 24);
+    appendQuoted(sb.append(' '), manufacturer, 32);
+    FixedPoint.append(sb.append(' '), maxSpeed, 8, 2);
+    FixedPoint.append(sb.append("   "), firstFlightYear, 4);
+    return sb.append("   ").append(inProduction ? '✓' : '✗').append(" }");
+  }
+
+  /**
+   * Appends a string in single quotes, left-aligned in a field.
+   *
+   * @param sb    the builder to append to
+   * @param value the string to quote
+   * @param width the minimum number of characters, including the quotes
+   */
+  private static void appendQuoted(StringBuilder sb, String value, int width) {
+    String s = String.valueOf(value);
+    sb.append('\'').append(s).append('\'');
+    for (int i = s.length() + 2; i < width; i++) {
+      sb.append(' ');
+    }
   }
 }
@@ -0,0 +1,813 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Reads and writes fleets of planes in CSV and in a compact binary format.
+ * <p>
+ * A CSV file has one plane per line with the fields {@code model}, {@code manufacturer},
+ * {@code maxSpeed}, {@code firstFlightYear} and {@code inProduction} ({@code true} or
+ * {@code false}), optionally preceded by the header line {@value #CSV_HEADER}. Fields containing
+ * commas or quotes are enclosed in double quotes, with quotes inside doubled. Line breaks inside
+ * fields are not supported.
+ * </p>
+ * <p>
+ * A binary file starts with the number of planes as an int, followed by the records. A record
+ * holds the manufacturer code as an int, the maximum speed as a float, the first flight year as an
+ * int, the production status as a byte and the model as a short length followed by UTF-8 bytes.
+ * Manufacturers are coded in the order of their first appearance, and the first record with a new
+ * code is followed by the manufacturer as a short length and UTF-8 bytes, so every manufacturer is
+ * stored only once. All values are little-endian.
+ * </p>
+ * <p>
+ * Files are read record by record through a {@link Reader}, so a fleet can be loaded straight into
+ * a {@link PlaneTable} or searched by {@link Lab3#findIdenticalPlane(Reader, Plane)} without
+ * creating a Plane object per record.
+ * </p>
+ */
+public final class PlaneFile {
+
+  /**
+   * The optional header line of a CSV file.
+   */
+  public static final String CSV_HEADER =
+      "model,manufacturer,maxSpeed,firstFlightYear,inProduction";
+
+  /**
+   * The initial size of the read and write buffers in bytes.
+   */
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /**
+   * The number of fields of a plane.
+   */
+  private static final int FIELD_COUNT = 5;
+
+  /**
+   * The exact powers of ten used to parse floats.
+   */
+  private static final float[] POWERS_OF_TEN = {
+      1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+  };
+
+  private PlaneFile() {
+  }
+
+  /**
+   * Opens a CSV file for reading.
+   *
+   * @param path the path to the file
+   * @return a reader positioned before the first plane
+   * @throws IOException if the file cannot be opened
+   */
+  public static Reader readCsv(Path path) throws IOException {
+    return new Reader(path, true);
+  }
+
+  /**
+   * Opens a binary file for reading.
+   *
+   * @param path the path to the file
+   * @return a reader positioned before the first plane
+   * @throws IOException if the file cannot be opened or has no valid header
+   */
+  public static Reader readBinary(Path path) throws IOException {
+    return new Reader(path, false);
+  }
+
+  /**
+   * Writes planes to a CSV file with a header line.
+   *
+   * @param path   the path to the file
+   * @param planes an array of Plane objects to write
+   * @throws IOException              if the file cannot be written
+   * @throws IllegalArgumentException if a model or manufacturer contains a line break
+   */
+  public static void writeCsv(Path path, Plane[] planes) throws IOException {
+    try (var out = new Output(path)) {
+      out.putBytes(CSV_HEADER.getBytes(StandardCharsets.US_ASCII));
+      out.putByte((byte) '\n');
+
+      for (Plane plane : planes) {
+        out.putBytes(csvField(plane.model));
+        out.putByte((byte) ',');
+        out.putBytes(csvField(plane.manufacturer));
+        out.putBytes(("," + plane.maxSpeed + "," + plane.firstFlightYear + ","
+            + plane.inProduction + "\n").getBytes(StandardCharsets.US_ASCII));
+      }
+    }
+  }
+
+  /**
+   * Writes planes to a binary file.
+   *
+   * @param path   the path to the file
+   * @param planes an array of Plane objects to write
+   * @throws IOException              if the file cannot be written
+   * @throws IllegalArgumentException if a model or manufacturer is longer than 65535 bytes
+   */
+  public static void writeBinary(Path path, Plane[] planes) throws IOException {
+    var codes = new HashMap<String, Integer>();
+
+    try (var out = new Output(path)) {
+      out.putInt(planes.length);
+
+      for (Plane plane : planes) {
+        Integer code = codes.get(plane.manufacturer);
+        if (code == null) {
+          out.putInt(codes.size());
+          out.putString(plane.manufacturer);
+          codes.put(plane.manufacturer, codes.size());
+        } else {
+          out.putInt(code);
+        }
+
+        out.putFloat(plane.maxSpeed);
+        out.putInt(plane.firstFlightYear);
+        out.putByte((byte) (plane.inProduction ? 1 : 0));
+        out.putString(plane.model);
+      }
+    }
+  }
+
+  private static byte[] csvField(String value) {
+    if (value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+      throw new IllegalArgumentException("Line breaks are not supported in CSV fields: " + value);
+    }
+    if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0) {
+      value = "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Reads planes one by one from a file opened by {@link #readCsv(Path)} or
+   * {@link #readBinary(Path)}.
+   * <p>
+   * The file is read through a reusable buffer, and numbers are parsed directly from its bytes.
+   * Manufacturers are interned, so all records of the same manufacturer share one string, and the
+   * string of a model is only created when {@link #model()} is called. The accessors return the
+   * fields of the current plane, which are replaced by the next call to {@link #next()}.
+   * </p>
+   */
+  public static final class Reader implements Closeable {
+
+    private final Path path;
+    private final FileChannel channel;
+    private final boolean csv;
+
+    private byte[] bytes = new byte[BUFFER_SIZE];
+    private ByteBuffer view = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * The position of the next unread byte in {@link #bytes}.
+     */
+    private int position;
+
+    /**
+     * The end of the bytes read from the file into {@link #bytes}.
+     */
+    private int limit;
+
+    private boolean endOfFile;
+
+    /**
+     * The number of planes read so far.
+     */
+    private long count;
+
+    /**
+     * The number of the current line of a CSV file.
+     */
+    private long line;
+
+    /**
+     * The number of planes in a binary file.
+     */
+    private int binaryCount;
+
+    /**
+     * The manufacturers of a binary file in the order of their codes.
+     */
+    private final ArrayList<String> binaryManufacturers = new ArrayList<>();
+
+    private final Interner manufacturers = new Interner();
+
+    /**
+     * The unescaped bytes of quoted CSV fields.
+     */
+    private byte[] scratch = new byte[64];
+    private int scratchLength;
+
+    private final byte[][] fieldBytes = new byte[FIELD_COUNT][];
+    private final int[] fieldFrom = new int[FIELD_COUNT];
+    private final int[] fieldLength = new int[FIELD_COUNT];
+
+    private byte[] modelBytes;
+    private int modelFrom;
+    private int modelLength;
+    private String model;
+    private String manufacturer;
+    private float maxSpeed;
+    private int firstFlightYear;
+    private boolean inProduction;
+
+    private Reader(Path path, boolean csv) throws IOException {
+      this.path = path;
+      this.csv = csv;
+      channel = FileChannel.open(path, StandardOpenOption.READ);
+
+      if (!csv) {
+        try {
+          binaryCount = readInt();
+          if (binaryCount < 0) {
+            throw error();
+          }
+        } catch (IOException e) {
+          channel.close();
+          throw e;
+        }
+      }
+    }
+
+    /**
+     * Reads the next plane.
+     *
+     * @return {@code true} if a plane was read, or {@code false} at the end of the file
+     * @throws IOException if the file cannot be read or is invalid
+     */
+    public boolean next() throws IOException {
+      model = null;
+      boolean read = csv ? nextCsv() : nextBinary();
+      if (read) {
+        count++;
+      }
+      return read;
+    }
+
+    /**
+     * Returns the model name of the current plane.
+     *
+     * @return the model name
+     */
+    public String model() {
+      if (model == null) {
+        model = new String(modelBytes, modelFrom, modelLength, StandardCharsets.UTF_8);
+      }
+      return model;
+    }
+
+    /**
+     * Returns the manufacturer of the current plane.
+     *
+     * @return the interned manufacturer
+     */
+    public String manufacturer() {
+      return manufacturer;
+    }
+
+    /**
+     * Returns the maximum speed of the current plane.
+     *
+     * @return the maximum speed in km/h
+     */
+    public float maxSpeed() {
+      return maxSpeed;
+    }
+
+    /**
+     * Returns the first flight year of the current plane.
+     *
+     * @return the year of the first flight
+     */
+    public int firstFlightYear() {
+      return firstFlightYear;
+    }
+
+    /**
+     * Checks whether the current plane is still in production.
+     *
+     * @return {@code true} if the plane is in production
+     */
+    public boolean inProduction() {
+      return inProduction;
+    }
+
+    /**
+     * Creates a Plane object from the current plane.
+     *
+     * @return a new Plane with the details of the current plane
+     */
+    public Plane plane() {
+      return new Plane(model(), manufacturer, maxSpeed, firstFlightYear, inProduction);
+    }
+
+    /**
+     * Checks whether the current plane is identical to the specified plane, as by
+     * {@link Plane#equals(Object)}. The primitive fields are compared first, so the model string
+     * is only created for planes that may match.
+     *
+     * @param plane the Plane object to compare with
+     * @return {@code true} if the planes are identical
+     */
+    public boolean matches(Plane plane) {
+      return plane.maxSpeed == maxSpeed
+          && plane.firstFlightYear == firstFlightYear
+          && plane.inProduction == inProduction
+          && plane.manufacturer.equals(manufacturer)
+          && plane.model.equals(model());
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+
+    private boolean nextCsv() throws IOException {
+      while (true) {
+        int end = indexOfNewline();
+        if (end < 0) {
+          if (!fill(limit - position + 1)) {
+            if (position == limit) {
+              return false;
+            }
+            end = limit;
+          } else {
+            continue;
+          }
+        }
+
+        int from = position;
+        position = Math.min(end + 1, limit);
+        line++;
+
+        int to = (end > from && bytes[end - 1] == '\r') ? end - 1 : end;
+        if (to == from || (line == 1 && isHeader(from, to))) {
+          continue;
+        }
+
+        parseCsvLine(from, to);
+        return true;
+      }
+    }
+
+    private int indexOfNewline() {
+      for (int i = position; i < limit; i++) {
+        if (bytes[i] == '\n') {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    private boolean isHeader(int from, int to) {
+      byte[] header = CSV_HEADER.getBytes(StandardCharsets.US_ASCII);
+      return Arrays.equals(bytes, from, to, header, 0, header.length);
+    }
+
+    /**
+     * Splits a CSV line into fields and parses them.
+     *
+     * @param from the position of the first byte of the line (inclusive)
+     * @param to   the position of the last byte of the line, without the line break (exclusive)
+     * @throws IOException if the line does not have valid fields
+     */
+    private void parseCsvLine(int from, int to) throws IOException {
+      scratchLength = 0;
+      int p = from;
+
+      for (int field = 0; field < FIELD_COUNT; field++) {
+        if (p < to && bytes[p] == '"') {
+          p = parseQuotedField(field, p + 1, to);
+        } else {
+          int start = p;
+          while (p < to && bytes[p] != ',') {
+            p++;
+          }
+          setField(field, bytes, start, p - start);
+        }
+
+        boolean last = field == FIELD_COUNT - 1;
+        if (last ? p != to : (p == to || bytes[p] != ',')) {
+          throw error();
+        }
+        p++;
+      }
+
+      modelBytes = fieldBytes[0];
+      modelFrom = fieldFrom[0];
+      modelLength = fieldLength[0];
+      manufacturer = manufacturers.intern(fieldBytes[1], fieldFrom[1], fieldLength[1]);
+      maxSpeed = parseFloat(fieldBytes[2], fieldFrom[2], fieldLength[2]);
+      firstFlightYear = parseInt(fieldBytes[3], fieldFrom[3], fieldLength[3]);
+      inProduction = parseBoolean(fieldBytes[4], fieldFrom[4], fieldLength[4]);
+    }
+
+    /**
+     * Reads a quoted field. If it has no doubled quotes, it is left in place in the buffer;
+     * otherwise it is unescaped into the scratch array.
+     *
+     * @param field the index of the field
+     * @param from  the position after the opening quote
+     * @param to    the end of the line
+     * @return the position after the closing quote
+     * @throws IOException if the closing quote is missing
+     */
+    private int parseQuotedField(int field, int from, int to) throws IOException {
+      int p = from;
+      while (p < to && bytes[p] != '"') {
+        p++;
+      }
+      if (p == to) {
+        throw error();
+      }
+      if (p + 1 == to || bytes[p + 1] != '"') {
+        setField(field, bytes, from, p - from);
+        return p + 1;
+      }
+
+      int start = scratchLength;
+      while (true) {
+        if (p == to) {
+          throw error();
+        }
+        if (bytes[p] == '"') {
+          appendScratch(from, p - from);
+          if (p + 1 < to && bytes[p + 1] == '"') {
+            appendScratch(p, 1);
+            from = p + 2;
+            p = from;
+            continue;
+          }
+          setField(field, scratch, start, scratchLength - start);
+          return p + 1;
+        }
+        p++;
+      }
+    }
+
+    private void appendScratch(int from, int length) {
+      if (scratchLength + length > scratch.length) {
+        scratch = Arrays.copyOf(scratch, Math.max(scratch.length * 2, scratchLength + length));
+        for (int field = 0; field < FIELD_COUNT; field++) {
+          if (fieldBytes[field] != bytes) {
+            fieldBytes[field] = scratch;
+          }
+        }
+      }
+      System.arraycopy(bytes, from, scratch, scratchLength, length);
+      scratchLength += length;
+    }
+
+    private void setField(int field, byte[] source, int from, int length) {
+      fieldBytes[field] = source;
+      fieldFrom[field] = from;
+      fieldLength[field] = length;
+    }
+
+    private boolean nextBinary() throws IOException {
+      if (count == binaryCount) {
+        return false;
+      }
+
+      int code = readInt();
+      if (code == binaryManufacturers.size()) {
+        int length = readShort();
+        ensure(length);
+        binaryManufacturers.add(manufacturers.intern(bytes, position, length));
+        position += length;
+      } else if (code < 0 || code > binaryManufacturers.size()) {
+        throw error();
+      }
+      manufacturer = binaryManufacturers.get(code);
+
+      ensure(Float.BYTES + Integer.BYTES + 1);
+      maxSpeed = view.getFloat(position);
+      firstFlightYear = view.getInt(position + Float.BYTES);
+      inProduction = bytes[position + Float.BYTES + Integer.BYTES] != 0;
+      position += Float.BYTES + Integer.BYTES + 1;
+
+      // The model is read last, so its bytes stay in place until the next record is read
+      modelLength = readShort();
+      ensure(modelLength);
+      modelBytes = bytes;
+      modelFrom = position;
+      position += modelLength;
+      return true;
+    }
+
+    private int readInt() throws IOException {
+      ensure(Integer.BYTES);
+      int value = view.getInt(position);
+      position += Integer.BYTES;
+      return value;
+    }
+
+    private int readShort() throws IOException {
+      ensure(Short.BYTES);
+      int value = Short.toUnsignedInt(view.getShort(position));
+      position += Short.BYTES;
+      return value;
+    }
+
+    private void ensure(int n) throws IOException {
+      if (!fill(n)) {
+        throw error();
+      }
+    }
+
+    /**
+     * Makes at least the specified number of unread bytes available in the buffer, moving the
+     * unread bytes to its start and growing it if needed.
+     *
+     * @param n the number of bytes needed
+     * @return {@code true} if the bytes are available, or {@code false} if the file ends before
+     * @throws IOException if the file cannot be read
+     */
+    private boolean fill(int n) throws IOException {
+      if (limit - position >= n) {
+        return true;
+      }
+
+      if (n > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, n));
+        view = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+      }
+      System.arraycopy(bytes, position, bytes, 0, limit - position);
+      limit -= position;
+      position = 0;
+
+      var target = ByteBuffer.wrap(bytes);
+      while (limit < n && !endOfFile) {
+        int read = channel.read(target.limit(bytes.length).position(limit));
+        if (read < 0) {
+          endOfFile = true;
+        } else {
+          limit += read;
+        }
+      }
+      return limit >= n;
+    }
+
+    /**
+     * Parses a float from ASCII bytes. Numbers of up to 7 significant digits with a decimal
+     * exponent of at most 10, which are the most common, are computed by a single exactly rounded
+     * float operation on exact values, so the result is the same as of
+     * {@link Float#parseFloat(String)}. Other numbers are passed to that method.
+     */
+    private float parseFloat(byte[] source, int from, int length) throws IOException {
+      int to = from + length;
+      int p = from;
+      boolean negative = p < to && source[p] == '-';
+      if (negative || (p < to && source[p] == '+')) {
+        p++;
+      }
+
+      long mantissa = 0;
+      int digits = 0;
+      int exponent = 0;
+      boolean fraction = false;
+      for (; p < to; p++) {
+        byte b = source[p];
+        if (b >= '0' && b <= '9') {
+          if (mantissa < Long.MAX_VALUE / 10 - 9) {
+            mantissa = mantissa * 10 + (b - '0');
+            if (fraction) {
+              exponent--;
+            }
+          } else if (!fraction) {
+            exponent++;
+          }
+          digits++;
+        } else if (b == '.' && !fraction) {
+          fraction = true;
+        } else {
+          break;
+        }
+      }
+
+      if (p == to && digits > 0 && mantissa <= 1 << 24
+          && exponent >= -10 && exponent <= 10) {
+        float value = (exponent >= 0)
+            ? mantissa * POWERS_OF_TEN[exponent]
+            : mantissa / POWERS_OF_TEN[-exponent];
+        return negative ? -value : value;
+      }
+
+      try {
+        return Float.parseFloat(new String(source, from, length, StandardCharsets.US_ASCII));
+      } catch (NumberFormatException e) {
+        throw error();
+      }
+    }
+
+    private int parseInt(byte[] source, int from, int length) throws IOException {
+      int to = from + length;
+      int p = from;
+      boolean negative = p < to && source[p] == '-';
+      if (negative || (p < to && source[p] == '+')) {
+        p++;
+      }
+      if (p == to || to - p > 10) {
+        throw error();
+      }
+
+      long value = 0;
+      for (; p < to; p++) {
+        byte b = source[p];
+        if (b < '0' || b > '9') {
+          throw error();
+        }
+        value = value * 10 + (b - '0');
+      }
+
+      value = negative ? -value : value;
+      if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+        throw error();
+      }
+      return (int) value;
+    }
+
+    private boolean parseBoolean(byte[] source, int from, int length) throws IOException {
+      if (equalsAscii(source, from, length, "true")) {
+        return true;
+      }
+      if (equalsAscii(source, from, length, "false")) {
+        return false;
+      }
+      throw error();
+    }
+
+    private static boolean equalsAscii(byte[] source, int from, int length, String value) {
+      if (length != value.length()) {
+        return false;
+      }
+      for (int i = 0; i < length; i++) {
+        if (source[from + i] != value.charAt(i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private IOException error() {
+      return csv
+          ? new IOException("Invalid plane file " + path + " at line " + line + ".")
+          : new IOException("Invalid plane file " + path + ".");
+    }
+  }
+
+  /**
+   * A private static nested class returning the same string for equal byte sequences, without
+   * creating a string for a sequence seen before.
+   */
+  private static final class Interner {
+
+    private byte[][] keys = new byte[64][];
+    private String[] values = new String[64];
+    private int[] hashes = new int[64];
+    private int size;
+
+    /**
+     * Returns the string of the specified UTF-8 bytes.
+     *
+     * @param source the array holding the bytes
+     * @param from   the position of the first byte
+     * @param length the number of bytes
+     * @return the shared string of the bytes
+     */
+    String intern(byte[] source, int from, int length) {
+      int hash = 1;
+      for (int i = from; i < from + length; i++) {
+        hash = 31 * hash + source[i];
+      }
+
+      int mask = values.length - 1;
+      int slot = (hash ^ (hash >>> 16)) & mask;
+      while (values[slot] != null) {
+        if (hashes[slot] == hash
+            && Arrays.equals(keys[slot], 0, keys[slot].length, source, from, from + length)) {
+          return values[slot];
+        }
+        slot = (slot + 1) & mask;
+      }
+
+      var value = new String(source, from, length, StandardCharsets.UTF_8);
+      keys[slot] = Arrays.copyOfRange(source, from, from + length);
+      values[slot] = value;
+      hashes[slot] = hash;
+      if (++size * 2 > values.length) {
+        resize();
+      }
+      return value;
+    }
+
+    private void resize() {
+      var oldKeys = keys;
+      var oldValues = values;
+      var oldHashes = hashes;
+      keys = new byte[oldKeys.length * 2][];
+      values = new String[oldValues.length * 2];
+      hashes = new int[oldHashes.length * 2];
+
+      int mask = values.length - 1;
+      for (int i = 0; i < oldValues.length; i++) {
+        if (oldValues[i] != null) {
+          int slot = (oldHashes[i] ^ (oldHashes[i] >>> 16)) & mask;
+          while (values[slot] != null) {
+            slot = (slot + 1) & mask;
+          }
+          keys[slot] = oldKeys[i];
+          values[slot] = oldValues[i];
+          hashes[slot] = oldHashes[i];
+        }
+      }
+    }
+  }
+
+  /**
+   * A private static nested class writing little-endian values to a file through a buffer.
+   */
+  private static final class Output implements Closeable {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer =
+        ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    Output(Path path) throws IOException {
+      channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    void putByte(byte value) throws IOException {
+      reserve(1).put(value);
+    }
+
+    void putInt(int value) throws IOException {
+      reserve(Integer.BYTES).putInt(value);
+    }
+
+    void putFloat(float value) throws IOException {
+      reserve(Float.BYTES).putFloat(value);
+    }
+
+    void putBytes(byte[] value) throws IOException {
+      for (int from = 0; from < value.length; ) {
+        int length = Math.min(value.length - from, BUFFER_SIZE);
+        reserve(length).put(value, from, length);
+        from += length;
+      }
+    }
+
+    /**
+     * Writes a string as its length in UTF-8 bytes as a short, followed by the bytes.
+     *
+     * @param value the string to write
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if the string is longer than 65535 bytes
+     */
+    void putString(String value) throws IOException {
+      byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+      if (utf8.length > 0xFFFF) {
+        throw new IllegalArgumentException("String is too long to be written: " + value + ".");
+      }
+      reserve(Short.BYTES).putShort((short) utf8.length);
+      putBytes(utf8);
+    }
+
+    private ByteBuffer reserve(int n) throws IOException {
+      if (buffer.remaining() < n) {
+        flush();
+      }
+      return buffer;
+    }
+
+    private void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+      try (channel) {
+        flush();
+      }
+    }
+  }
+}
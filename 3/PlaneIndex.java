@@ -0,0 +1,163 @@
+/**
+ * An index of an array of planes for finding identical planes faster than the linear search of
+ * {@link Lab3#findIdenticalPlane(Plane[], Plane)}.
+ * <p>
+ * An instance keeps a hash table of the planes, so a lookup takes constant time on average. The
+ * static {@link #binarySearch(Plane[], Plane)} method needs no index, but only searches arrays
+ * sorted by {@link Lab3#sortPlanes(Plane[])}. Both return the lowest index of an identical plane,
+ * the same as the linear search.
+ */
+public final class PlaneIndex {
+
+  /**
+   * The indexed planes. The array is not copied, so it must not be changed while indexed.
+   */
+  private final Plane[] planes;
+
+  /**
+   * The open-addressing hash table holding the index of a plane plus one in each used slot, or
+   * zero in an empty slot. The length is a power of two, at least twice the number of planes.
+   */
+  private final int[] slots;
+
+  /**
+   * The hash codes of the planes in the corresponding slots, compared before calling
+   * {@link Plane#equals(Object)}.
+   */
+  private final int[] hashes;
+
+  /**
+   * Constructs an index of the specified planes. Only the first of several identical planes is
+   * indexed, and {@code null} elements are skipped.
+   *
+   * @param planes an array of Plane objects to index
+   */
+  public PlaneIndex(Plane[] planes) {
+    this.planes = planes;
+
+    int capacity = Integer.highestOneBit(Math.max(planes.length, 1) * 2 - 1) << 1;
+    slots = new int[capacity];
+    hashes = new int[capacity];
+
+    for (int i = 0; i < planes.length; i++) {
+      if (planes[i] == null) {
+        continue;
+      }
+      int hash = hash(planes[i]);
+      int slot = find(planes[i], hash);
+      if (slots[slot] == 0) {
+        slots[slot] = i + 1;
+        hashes[slot] = hash;
+      }
+    }
+  }
+
+  /**
+   * Searches for a plane in the indexed array that is identical to the specified plane.
+   *
+   * @param plane the Plane object to find
+   * @return the lowest index of an identical plane, or {@code -1} if there is none
+   * @see Plane#equals(Object)
+   */
+  public int indexOf(Plane plane) {
+    return slots[find(plane, hash(plane))] - 1;
+  }
+
+  /**
+   * Searches for identical planes of each of the specified planes.
+   *
+   * @param queries an array of Plane objects to find
+   * @return the lowest index of a plane identical to each query, or {@code -1} for the queries
+   * with no identical plane
+   */
+  public int[] indexOf(Plane[] queries) {
+    int[] indices = new int[queries.length];
+    for (int i = 0; i < queries.length; i++) {
+      indices[i] = indexOf(queries[i]);
+    }
+    return indices;
+  }
+
+  /**
+   * Searches for a plane identical to the specified plane in an array sorted by
+   * {@link Lab3#sortPlanes(Plane[])}.
+   * <p>
+   * The first plane not preceding the specified one in the sort order is found by binary search,
+   * and then only the planes with the same production status and maximum speed are compared.
+   *
+   * @param sortedPlanes an array of Plane objects sorted by {@link Lab3#sortPlanes(Plane[])}
+   * @param plane        the Plane object to find
+   * @return the lowest index of an identical plane, or {@code -1} if there is none
+   * @see Plane#equals(Object)
+   */
+  public static int binarySearch(Plane[] sortedPlanes, Plane plane) {
+    int low = 0;
+    int high = sortedPlanes.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (precedes(sortedPlanes[mid], plane)) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+
+    for (int i = low; i < sortedPlanes.length && sameSortKey(sortedPlanes[i], plane); i++) {
+      if (plane.equals(sortedPlanes[i])) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Checks whether a plane comes before another one in the order of
+   * {@link Lab3#sortPlanes(Plane[])}. Speeds of zero of either sign are treated as the same,
+   * since such planes may be equal.
+   *
+   * @param p     the plane to check
+   * @param plane the plane to compare with
+   * @return {@code true} if {@code p} is sorted before {@code plane} and cannot be equal to it
+   */
+  private static boolean precedes(Plane p, Plane plane) {
+    if (p.inProduction != plane.inProduction) {
+      return !p.inProduction;
+    }
+    return Float.compare(p.maxSpeed, plane.maxSpeed) > 0 && p.maxSpeed != plane.maxSpeed;
+  }
+
+  private static boolean sameSortKey(Plane p, Plane plane) {
+    return p.inProduction == plane.inProduction
+        && (p.maxSpeed == plane.maxSpeed || Float.compare(p.maxSpeed, plane.maxSpeed) == 0);
+  }
+
+  /**
+   * Finds the slot holding a plane identical to the specified plane, or the empty slot where it
+   * would be inserted, by linear probing.
+   *
+   * @param plane the plane to find
+   * @param hash  the spread hash of the plane
+   * @return the index of the slot
+   */
+  private int find(Plane plane, int hash) {
+    int mask = slots.length - 1;
+    int slot = hash & mask;
+    while (slots[slot] != 0
+        && (hashes[slot] != hash || !plane.equals(planes[slots[slot] - 1]))) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Computes the hash of the specified plane, spreading the higher bits downwards so that they
+   * take part in slot selection.
+   *
+   * @param plane the plane to hash
+   * @return the spread hash of the plane
+   */
+  private static int hash(Plane plane) {
+    int h = plane.hashCode();
+    return h ^ (h >>> 16);
+  }
+}
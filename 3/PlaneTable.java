@@ -0,0 +1,427 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * A table of planes stored by columns, for sorting and filtering large fleets without creating a
+ * Plane object per row.
+ * <p>
+ * Each field is kept in its own primitive array: maximum speeds in a {@code float[]}, first flight
+ * years in an {@code int[]} and production statuses in a {@link BitSet}. Models and manufacturers,
+ * which repeat heavily in a fleet, are dictionary-encoded: every distinct string is stored once and
+ * rows hold its {@code int} code. Sorting rearranges an array of row numbers instead of the rows,
+ * and filters return the matching rows as a {@link BitSet}, so they can be combined with
+ * {@link BitSet#and(BitSet)} and {@link BitSet#or(BitSet)}.
+ */
+public final class PlaneTable {
+
+  /**
+   * The number of characters collected before they are passed to the writer in
+   * {@link #writeRows(int[], Writer)}.
+   */
+  private static final int WRITE_BUFFER_SIZE = 1 << 13;
+
+  private int size;
+  private float[] maxSpeeds;
+  private int[] firstFlightYears;
+  private final BitSet inProduction = new BitSet();
+  private int[] modelCodes;
+  private int[] manufacturerCodes;
+  private final Dictionary models = new Dictionary();
+  private final Dictionary manufacturers = new Dictionary();
+
+  /**
+   * Constructs an empty table sized for approximately the specified number of planes.
+   *
+   * @param capacity the expected number of planes
+   */
+  public PlaneTable(int capacity) {
+    capacity = Math.max(capacity, 16);
+    maxSpeeds = new float[capacity];
+    firstFlightYears = new int[capacity];
+    modelCodes = new int[capacity];
+    manufacturerCodes = new int[capacity];
+  }
+
+  /**
+   * Constructs a table holding the specified planes in the same order.
+   *
+   * @param planes an array of Plane objects
+   * @return the table of the planes
+   */
+  public static PlaneTable of(Plane[] planes) {
+    var table = new PlaneTable(planes.length);
+    for (Plane plane : planes) {
+      table.add(plane);
+    }
+    return table;
+  }
+
+  /**
+   * Constructs a table holding all remaining planes of a file in the same order. The planes are
+   * appended as they are read, without creating Plane objects.
+   *
+   * @param reader the reader of the file
+   * @return the table of the planes
+   * @throws IOException if the file cannot be read or is invalid
+   */
+  public static PlaneTable of(PlaneFile.Reader reader) throws IOException {
+    var table = new PlaneTable(16);
+    while (reader.next()) {
+      table.add(reader.model(), reader.manufacturer(), reader.maxSpeed(),
+          reader.firstFlightYear(), reader.inProduction());
+    }
+    return table;
+  }
+
+  /**
+   * Appends a plane to the end of this table.
+   *
+   * @param plane the Plane object to append
+   */
+  public void add(Plane plane) {
+    add(plane.model, plane.manufacturer, plane.maxSpeed, plane.firstFlightYear, plane.inProduction);
+  }
+
+  /**
+   * Appends a plane with the specified details to the end of this table.
+   *
+   * @param model           the model name of the plane
+   * @param manufacturer    the manufacturer of the plane
+   * @param maxSpeed        the maximum speed of the plane
+   * @param firstFlightYear the year of the plane's first flight
+   * @param inProduction    whether the plane is still in production
+   */
+  public void add(String model, String manufacturer, float maxSpeed, int firstFlightYear,
+      boolean inProduction) {
+    if (size == maxSpeeds.length) {
+      int capacity = size * 2;
+      maxSpeeds = Arrays.copyOf(maxSpeeds, capacity);
+      firstFlightYears = Arrays.copyOf(firstFlightYears, capacity);
+      modelCodes = Arrays.copyOf(modelCodes, capacity);
+      manufacturerCodes = Arrays.copyOf(manufacturerCodes, capacity);
+    }
+
+    maxSpeeds[size] = maxSpeed;
+    firstFlightYears[size] = firstFlightYear;
+    this.inProduction.set(size, inProduction);
+    modelCodes[size] = models.encode(model);
+    manufacturerCodes[size] = manufacturers.encode(manufacturer);
+    size++;
+  }
+
+  /**
+   * Returns the number of planes in this table.
+   *
+   * @return the number of rows
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the model name of the plane in the specified row.
+   *
+   * @param row the index of the row
+   * @return the model name
+   */
+  public String model(int row) {
+    return models.decode(modelCodes[checkRow(row)]);
+  }
+
+  /**
+   * Returns the manufacturer of the plane in the specified row.
+   *
+   * @param row the index of the row
+   * @return the manufacturer
+   */
+  public String manufacturer(int row) {
+    return manufacturers.decode(manufacturerCodes[checkRow(row)]);
+  }
+
+  /**
+   * Returns the maximum speed of the plane in the specified row.
+   *
+   * @param row the index of the row
+   * @return the maximum speed in km/h
+   */
+  public float maxSpeed(int row) {
+    return maxSpeeds[checkRow(row)];
+  }
+
+  /**
+   * Returns the first flight year of the plane in the specified row.
+   *
+   * @param row the index of the row
+   * @return the year of the first flight
+   */
+  public int firstFlightYear(int row) {
+    return firstFlightYears[checkRow(row)];
+  }
+
+  /**
+   * Checks whether the plane in the specified row is still in production.
+   *
+   * @param row the index of the row
+   * @return {@code true} if the plane is in production
+   */
+  public boolean inProduction(int row) {
+    return inProduction.get(checkRow(row));
+  }
+
+  /**
+   * Creates a Plane object from the specified row.
+   *
+   * @param row the index of the row
+   * @return a new Plane with the details of the row
+   */
+  public Plane plane(int row) {
+    return new Plane(model(row), manufacturer(row), maxSpeed(row), firstFlightYear(row),
+        inProduction(row));
+  }
+
+  /**
+   * Creates Plane objects from the specified rows, in the same order.
+   *
+   * @param rows the indices of the rows, for example as returned by {@link #sortedRows()}
+   * @return an array of new Plane objects
+   */
+  public Plane[] planes(int[] rows) {
+    var planes = new Plane[rows.length];
+    for (int i = 0; i < rows.length; i++) {
+      planes[i] = plane(rows[i]);
+    }
+    return planes;
+  }
+
+  /**
+   * Writes the specified rows to a writer, one line per row in the layout of
+   * {@link Plane#toString()}. The rows are appended to a reusable buffer straight from the
+   * columns, without creating Plane objects or a string per row.
+   *
+   * @param rows the indices of the rows, for example as returned by {@link #sortedRows()}
+   * @param out  the writer to write to
+   * @throws IOException if the writer fails
+   */
+  public void writeRows(int[] rows, Writer out) throws IOException {
+    var sb = new StringBuilder(WRITE_BUFFER_SIZE + 256);
+    for (int row : rows) {
+      checkRow(row);
+      Plane.append(sb, models.decode(modelCodes[row]), manufacturers.decode(manufacturerCodes[row]),
+          maxSpeeds[row], firstFlightYears[row], inProduction.get(row)).append('\n');
+      if (sb.length() >= WRITE_BUFFER_SIZE) {
+        out.append(sb);
+        sb.setLength(0);
+      }
+    }
+    out.append(sb);
+  }
+
+  /**
+   * Returns the rows of this table in the order of {@link Lab3#sortPlanes(Plane[])}: not in
+   * production first, then by maximum speed in descending order. The sort is stable, so rows with
+   * the same keys keep their order.
+   * <p>
+   * Rows not in production are taken first and the rest after them, which leaves only the speeds
+   * to be compared. The two ranges are then merge sorted by comparing speeds in the primitive
+   * column directly.
+   * </p>
+   *
+   * @return the indices of the rows in sorted order
+   */
+  public int[] sortedRows() {
+    int[] rows = new int[size];
+    int notInProduction = size - inProduction.cardinality();
+    for (int row = 0, first = 0, second = notInProduction; row < size; row++) {
+      if (inProduction.get(row)) {
+        rows[second++] = row;
+      } else {
+        rows[first++] = row;
+      }
+    }
+
+    int[] buffer = new int[size];
+    mergeSort(rows, buffer, 0, notInProduction);
+    mergeSort(rows, buffer, notInProduction, size);
+    return rows;
+  }
+
+  /**
+   * Finds the rows with the specified production status.
+   *
+   * @param value the production status to match
+   * @return the set of matching rows
+   */
+  public BitSet whereInProduction(boolean value) {
+    var rows = (BitSet) inProduction.clone();
+    if (!value) {
+      rows.flip(0, size);
+    }
+    return rows;
+  }
+
+  /**
+   * Finds the rows with a maximum speed in the specified range.
+   *
+   * @param min the lowest speed to match (inclusive)
+   * @param max the highest speed to match (inclusive)
+   * @return the set of matching rows
+   */
+  public BitSet whereMaxSpeedBetween(float min, float max) {
+    var rows = new BitSet(size);
+    for (int row = 0; row < size; row++) {
+      float speed = maxSpeeds[row];
+      if (speed >= min && speed <= max) {
+        rows.set(row);
+      }
+    }
+    return rows;
+  }
+
+  /**
+   * Finds the rows with a first flight year in the specified range.
+   *
+   * @param from the earliest year to match (inclusive)
+   * @param to   the latest year to match (inclusive)
+   * @return the set of matching rows
+   */
+  public BitSet whereFirstFlightYearBetween(int from, int to) {
+    var rows = new BitSet(size);
+    for (int row = 0; row < size; row++) {
+      int year = firstFlightYears[row];
+      if (year >= from && year <= to) {
+        rows.set(row);
+      }
+    }
+    return rows;
+  }
+
+  /**
+   * Finds the rows with the specified model name. The name is looked up in the dictionary once,
+   * and then only codes are compared.
+   *
+   * @param model the model name to match
+   * @return the set of matching rows
+   */
+  public BitSet whereModel(String model) {
+    return whereCode(modelCodes, models.codeOf(model));
+  }
+
+  /**
+   * Finds the rows with the specified manufacturer. The name is looked up in the dictionary once,
+   * and then only codes are compared.
+   *
+   * @param manufacturer the manufacturer to match
+   * @return the set of matching rows
+   */
+  public BitSet whereManufacturer(String manufacturer) {
+    return whereCode(manufacturerCodes, manufacturers.codeOf(manufacturer));
+  }
+
+  private BitSet whereCode(int[] codes, int code) {
+    var rows = new BitSet(size);
+    if (code < 0) {
+      return rows;
+    }
+    for (int row = 0; row < size; row++) {
+      if (codes[row] == code) {
+        rows.set(row);
+      }
+    }
+    return rows;
+  }
+
+  /**
+   * Sorts a range of rows with the same production status by maximum speed in descending order,
+   * in the same way as the comparator of {@link Lab3#sortPlanes(Plane[])} compares speeds.
+   *
+   * @param rows   the rows to sort
+   * @param buffer a temporary array at least as long as {@code rows}
+   * @param from   the first index of the range (inclusive)
+   * @param to     the last index of the range (exclusive)
+   */
+  private void mergeSort(int[] rows, int[] buffer, int from, int to) {
+    if (to - from < 2) {
+      return;
+    }
+
+    int middle = (from + to) >>> 1;
+    mergeSort(rows, buffer, from, middle);
+    mergeSort(rows, buffer, middle, to);
+    if (Float.compare(maxSpeeds[rows[middle - 1]], maxSpeeds[rows[middle]]) >= 0) {
+      return;
+    }
+
+    System.arraycopy(rows, from, buffer, from, to - from);
+    for (int i = from, left = from, right = middle; i < to; i++) {
+      if (right == to || (left < middle
+          && Float.compare(maxSpeeds[buffer[left]], maxSpeeds[buffer[right]]) >= 0)) {
+        rows[i] = buffer[left++];
+      } else {
+        rows[i] = buffer[right++];
+      }
+    }
+  }
+
+  private int checkRow(int row) {
+    if (row < 0 || row >= size) {
+      throw new IndexOutOfBoundsException(
+          "Row " + row + " is out of bounds for a table of " + size + " planes.");
+    }
+    return row;
+  }
+
+  /**
+   * A private static nested class assigning consecutive codes to distinct strings.
+   */
+  private static final class Dictionary {
+
+    /**
+     * The codes of the strings seen so far.
+     */
+    private final HashMap<String, Integer> codes = new HashMap<>();
+
+    /**
+     * The strings by their codes.
+     */
+    private String[] values = new String[16];
+
+    /**
+     * Returns the code of a string, assigning the next code if the string is new.
+     *
+     * @param value the string to encode
+     * @return the code of the string
+     */
+    int encode(String value) {
+      Integer code = codes.get(value);
+      if (code != null) {
+        return code;
+      }
+
+      int newCode = codes.size();
+      if (newCode == values.length) {
+        values = Arrays.copyOf(values, newCode * 2);
+      }
+      values[newCode] = value;
+      codes.put(value, newCode);
+      return newCode;
+    }
+
+    /**
+     * Returns the code of a string without assigning one.
+     *
+     * @param value the string to look up
+     * @return the code of the string, or {@code -1} if the string was never encoded
+     */
+    int codeOf(String value) {
+      Integer code = codes.get(value);
+      return (code != null) ? code : -1;
+    }
+
+    String decode(int code) {
+      return values[code];
+    }
+  }
+}
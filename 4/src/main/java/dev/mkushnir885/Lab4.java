@@ -1,7 +1,12 @@
 package dev.mkushnir885;
 
+import dev.mkushnir885.classes.Sentence;
 import dev.mkushnir885.classes.Text;
-import dev.mkushnir885.classes.Letter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Entry point for the Lab4 application.
@@ -16,12 +21,16 @@ public class Lab4 {
    * The main method serves as the entry point of the application.
    * <p>
    * The method initializes a predefined {@code Text} object and calculates the longest palindromic
-   * substring. The result is printed to the standard output. If the text is invalid or processing
-   * fails, an error message is printed to the standard error, and the application exits with a
-   * non-zero status code.
+   * substring. The result is printed to the standard output. If a file path is given, the file is
+   * instead read sentence by sentence and the longest palindrome of each sentence is printed, so
+   * files of any size can be processed. With the {@code --mapped} option before the path, the file
+   * is memory-mapped and the longest palindrome of the whole file is printed with its offsets. If
+   * the text is invalid or processing fails, an error message is printed to the standard error,
+   * and the application exits with a non-zero status code.
    * </p>
    *
-   * @param args command-line arguments (not used)
+   * @param args command-line arguments, optionally the {@code --mapped} option and the path to a
+   *             text file
    */
   public static void main(String[] args) {
     final String TEXT = """
@@ -35,15 +44,43 @@ public class Lab4 {
 
     try {
 
+      if (args.length > 1 && args[0].equals("--mapped")) {
+        var result = MappedPalindromeFinder.longestPalindrome(Path.of(args[1]));
+        System.out.printf("Longest palindrome at bytes [%d, %d): '%s'%n",
+            result.from(), result.to(), result.text());
+        return;
+      }
+      if (args.length > 0) {
+        printSentencePalindromes(Path.of(args[0]));
+        return;
+      }
+
       Text result = longestPalindrome(new Text(TEXT));
       System.out.printf("Longest palindrome: '%s'%n", result);
 
-    } catch (IllegalArgumentException e) {
+    } catch (IllegalArgumentException | IOException | UncheckedIOException e) {
       System.err.println("Execution failed. " + e.getMessage());
       System.exit(1);
     }
   }
 
+  /**
+   * Reads a text file sentence by sentence and prints the longest palindromic substring of each
+   * sentence. Only one sentence is held in memory at a time.
+   *
+   * @param path the path to the text file
+   * @throws IOException if opening the file fails
+   */
+  private static void printSentencePalindromes(Path path) throws IOException {
+    try (var sentences = Text.sentences(path)) {
+      int index = 0;
+      for (Sentence sentence : (Iterable<Sentence>) sentences::iterator) {
+        Text result = longestPalindrome(sentence.toText());
+        System.out.printf("Sentence %d: '%s'%n", ++index, result);
+      }
+    }
+  }
+
   /**
    * Finds the longest palindromic substring within a given {@code Text} object.
    * <p>
@@ -56,12 +93,51 @@ public class Lab4 {
    * @return the longest palindromic substring as a {@code Text} object
    */
   public static Text longestPalindrome(Text text) {
+    return longestPalindrome(text, 0, text.letterCount());
+  }
+
+  /**
+   * Finds the longest palindromic substring within a given {@code Text} object using several
+   * threads.
+   * <p>
+   * The centers of the text are split into chunks searched in parallel on a dedicated
+   * {@link ForkJoinPool}. The letters are shared, so a palindrome is found by the chunk holding its
+   * center even if it extends into neighbouring chunks. The results of adjacent chunks are merged
+   * in order, so the result is exactly the same as the one of {@link #longestPalindrome(Text)}.
+   * </p>
+   *
+   * @param text        the {@code Text} object to search for palindromes, must not be null
+   * @param parallelism the number of threads to use
+   * @return the longest palindromic substring as a {@code Text} object
+   * @throws IllegalArgumentException if the parallelism is not positive
+   */
+  public static Text longestPalindrome(Text text, int parallelism) {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("Parallelism must be positive.");
+    }
+    int chunkSize = Math.max(text.letterCount() / (parallelism * PalindromeTask.CHUNKS_PER_THREAD),
+        PalindromeTask.MIN_CHUNK_SIZE);
+
+    try (var pool = new ForkJoinPool(parallelism)) {
+      return pool.invoke(new PalindromeTask(text, 0, text.letterCount(), chunkSize));
+    }
+  }
+
+  /**
+   * Finds the longest palindromic substring whose center lies within a range of letters. The
+   * palindromes themselves may extend beyond the range.
+   *
+   * @param text the {@code Text} object to search for palindromes
+   * @param from the index of the first center letter (inclusive)
+   * @param to   the index of the last center letter (exclusive)
+   * @return the longest palindromic substring, or {@code null} if the range is empty
+   */
+  private static Text longestPalindrome(Text text, int from, int to) {
     Text longest = null;
-    var letters = text.getLetters();
 
-    for (int i = 0; i < letters.length; i++) {
-      Text palindrome1 = expandAroundCenter(text, letters, i, i);
-      Text palindrome2 = expandAroundCenter(text, letters, i, i + 1);
+    for (int i = from; i < to; i++) {
+      Text palindrome1 = expandAroundCenter(text, i, i);
+      Text palindrome2 = expandAroundCenter(text, i, i + 1);
 
       Text longer = (palindrome1.strLen() > palindrome2.strLen())
           ? palindrome1
@@ -80,15 +156,14 @@ public class Lab4 {
    * found or the bounds of the text are reached.
    * </p>
    *
-   * @param text    the {@code Text} object being searched
-   * @param letters the array of {@code Letter} objects representing the text's letters
-   * @param left    the starting left index for expansion
-   * @param right   the starting right index for expansion
+   * @param text  the {@code Text} object being searched
+   * @param left  the starting left index for expansion
+   * @param right the starting right index for expansion
    * @return the longest palindromic substring found during expansion as a {@code Text} object
    */
-  private static Text expandAroundCenter(Text text, Letter[] letters, int left, int right) {
-    while (left >= 0 && right < letters.length) {
-      if (letters[left].equals(letters[right])) {
+  private static Text expandAroundCenter(Text text, int left, int right) {
+    while (left >= 0 && right < text.letterCount()) {
+      if (text.letterAt(left).equals(text.letterAt(right))) {
         left--;
         right++;
       } else {
@@ -97,4 +172,67 @@ public class Lab4 {
     }
     return text.substrByLetters(left + 1, right);
   }
+
+  /**
+   * A task searching a range of centers for the longest palindrome, splitting it in halves until
+   * it is small enough to be searched directly.
+   */
+  private static class PalindromeTask extends RecursiveTask<Text> {
+
+    /**
+     * The number of chunks per thread, so that threads finishing early can take more work.
+     */
+    static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * The smallest number of centers worth searching in a separate task.
+     */
+    static final int MIN_CHUNK_SIZE = 1 << 12;
+
+    private final Text text;
+    private final int from;
+    private final int to;
+    private final int chunkSize;
+
+    /**
+     * Constructs a task searching a range of centers.
+     *
+     * @param text      the {@code Text} object to search for palindromes
+     * @param from      the index of the first center letter (inclusive)
+     * @param to        the index of the last center letter (exclusive)
+     * @param chunkSize the largest range searched without splitting
+     */
+    PalindromeTask(Text text, int from, int to, int chunkSize) {
+      this.text = text;
+      this.from = from;
+      this.to = to;
+      this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Searches the range, merging the results of its halves. The right half wins only if its
+     * palindrome is strictly longer, as it would in a sequential search.
+     *
+     * @return the longest palindrome centered in the range, or {@code null} if the range is empty
+     */
+    @Override
+    protected Text compute() {
+      if (to - from <= chunkSize) {
+        return longestPalindrome(text, from, to);
+      }
+
+      int middle = (from + to) >>> 1;
+      var right = new PalindromeTask(text, middle, to, chunkSize);
+      right.fork();
+      Text leftResult = new PalindromeTask(text, from, middle, chunkSize).compute();
+      Text rightResult = right.join();
+
+      if (leftResult == null) {
+        return rightResult;
+      }
+      return (rightResult != null && rightResult.strLen() > leftResult.strLen())
+          ? rightResult
+          : leftResult;
+    }
+  }
 }
@@ -0,0 +1,475 @@
+package dev.mkushnir885;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Finds the longest palindrome in a text file of any size without reading it into memory.
+ * <p>
+ * The file is memory-mapped in chunks of 1 GiB, so files larger than 2 GiB are supported, and the
+ * search runs directly over the mapped bytes. Only ASCII letters take part in palindromes and their
+ * case is ignored; all other bytes, including those of multi-byte UTF-8 characters, are treated as
+ * separators. The file is expected to be encoded in ASCII or UTF-8.
+ * </p>
+ * <p>
+ * The search uses Manacher's algorithm over a window of recently seen letters. The window grows
+ * only while it is shorter than a palindrome whose radii are still needed, which keeps the search
+ * linear, so the memory used depends on the longest palindrome of the file rather than its size.
+ * </p>
+ */
+public final class MappedPalindromeFinder {
+
+  /**
+   * The longest palindrome found in a file.
+   *
+   * @param from the offset in bytes of the first character of the palindrome (inclusive)
+   * @param to   the offset in bytes of the last character of the palindrome (exclusive)
+   * @param text the palindrome as it appears in the file
+   */
+  public record Palindrome(long from, long to, String text) {
+
+  }
+
+  /**
+   * The binary logarithm of the size of a mapped chunk in bytes.
+   */
+  private static final int CHUNK_BITS = 30;
+
+  /**
+   * The mask selecting the offset within a mapped chunk.
+   */
+  private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+  /**
+   * The initial number of most recent letters whose positions and palindrome radii are kept. Must
+   * be a power of two.
+   */
+  private static final int WINDOW = 1 << 16;
+
+  /**
+   * The mapped chunks of the file.
+   */
+  private final MappedByteBuffer[] chunks;
+
+  /**
+   * The size of the file in bytes.
+   */
+  private final long size;
+
+  /**
+   * The byte offsets of the most recently found letters, indexed by letter index modulo the
+   * window size.
+   */
+  private long[] positions = new long[WINDOW];
+
+  /**
+   * The radii of the odd-length palindromes centered at the most recent letters.
+   */
+  private int[] oddRadii = new int[WINDOW];
+
+  /**
+   * The radii of the even-length palindromes centered before the most recent letters.
+   */
+  private int[] evenRadii = new int[WINDOW];
+
+  /**
+   * The mask selecting the slot of a letter in the window.
+   */
+  private int windowMask = WINDOW - 1;
+
+  /**
+   * The index of the first letter in the window.
+   */
+  private long windowStart;
+
+  /**
+   * The index of the first letter that must stay in the window: no letter from it on is replaced
+   * by a new one, and the window grows instead.
+   */
+  private long keptFrom;
+
+  /**
+   * The number of letters found so far.
+   */
+  private long letterCount;
+
+  /**
+   * The offset of the next byte to scan for letters.
+   */
+  private long scanPosition;
+
+  /**
+   * Constructs a finder over the mapped chunks of a file.
+   *
+   * @param chunks the mapped chunks of the file
+   * @param size   the size of the file in bytes
+   */
+  private MappedPalindromeFinder(MappedByteBuffer[] chunks, long size) {
+    this.chunks = chunks;
+    this.size = size;
+  }
+
+  /**
+   * Finds the longest palindromic substring of a text file.
+   * <p>
+   * The result is the same as the one of {@link Lab4#longestPalindrome} for the text of the file,
+   * except that lengths are measured in bytes of the file, which matters only if the file has runs
+   * of whitespace. If the file has no letters, an empty palindrome at offset zero is returned.
+   * </p>
+   *
+   * @param path the path to the file
+   * @return the longest palindrome with its offsets in the file
+   * @throws IOException              if the file cannot be read or mapped
+   * @throws IllegalArgumentException if the palindrome is too long to be searched or returned as a
+   *                                  string
+   */
+  public static Palindrome longestPalindrome(Path path) throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      var chunks = new MappedByteBuffer[(int) ((size + CHUNK_MASK) >>> CHUNK_BITS)];
+
+      for (int i = 0; i < chunks.length; i++) {
+        long start = (long) i << CHUNK_BITS;
+        chunks[i] = channel.map(MapMode.READ_ONLY, start, Math.min(CHUNK_MASK + 1, size - start));
+      }
+      return new MappedPalindromeFinder(chunks, size).search();
+    }
+  }
+
+  /**
+   * Runs Manacher's algorithm over the letters of the file, keeping the same tie rules as
+   * {@link Lab4#longestPalindrome}.
+   *
+   * @return the longest palindrome
+   */
+  private Palindrome search() {
+    long longestFrom = 0;
+    long longestTo = 0;
+
+    long oddLeft = 0;
+    long oddRight = -1;
+    long evenLeft = 0;
+    long evenRight = -1;
+
+    // The odd-length palindrome centered at the previous letter, compared with the even-length
+    // palindrome centered between the previous and the current letter
+    long previousFrom = 0;
+    long previousTo = 0;
+
+    long center = nextLetter(-1, 0);
+    for (long i = 0; center >= 0; i++) {
+
+      // The letters of the palindromes around the current center, whose radii are reused through
+      // their mirrors, and the letter before them are kept in the window
+      long boxLeft = i;
+      if (i <= oddRight) {
+        boxLeft = Math.min(boxLeft, oddLeft);
+      }
+      if (i <= evenRight) {
+        boxLeft = Math.min(boxLeft, evenLeft);
+      }
+      keptFrom = boxLeft - 1;
+
+      // The positions of the first and the last letter of the palindrome found so far
+      long from = center;
+      long to = center;
+      int k = 1;
+      if (i <= oddRight) {
+        k = (int) Math.min(oddRadii[slot(oddLeft + oddRight - i)], oddRight - i + 1);
+        from = positions[slot(i - k + 1)];
+        to = positions[slot(i + k - 1)];
+      }
+
+      keep(i - k - 1);
+      long left = previousLetter(from, i - k);
+      long right = nextLetter(to, i + k);
+      while (left >= 0 && right >= 0 && sameLetters(left, right)) {
+        k++;
+        from = left;
+        to = right;
+        keep(i - k - 1);
+        left = previousLetter(left, i - k);
+        right = nextLetter(right, i + k);
+      }
+
+      oddRadii[slot(i)] = k;
+      if (i + k - 1 > oddRight) {
+        oddLeft = i - k + 1;
+        oddRight = i + k - 1;
+        if (oddLeft < windowStart) {
+          refill(oddLeft, from);
+        }
+      }
+      long oddFrom = from;
+      long oddTo = to + 1;
+
+      k = 0;
+      if (i <= evenRight) {
+        k = (int) Math.min(evenRadii[slot(evenLeft + evenRight - i + 1)], evenRight - i + 1);
+      }
+
+      if (k > 0) {
+        from = positions[slot(i - k)];
+        to = positions[slot(i + k - 1)];
+        keep(i - k - 2);
+        left = previousLetter(from, i - k - 1);
+        right = nextLetter(to, i + k);
+      } else {
+        left = previousLetter(center, i - 1);
+        right = center;
+      }
+      while (left >= 0 && right >= 0 && sameLetters(left, right)) {
+        k++;
+        from = left;
+        to = right;
+        keep(i - k - 2);
+        left = previousLetter(left, i - k - 1);
+        right = nextLetter(right, i + k);
+      }
+
+      evenRadii[slot(i)] = k;
+      if (i + k - 1 > evenRight) {
+        evenLeft = i - k;
+        evenRight = i + k - 1;
+        if (evenLeft < windowStart) {
+          refill(evenLeft, from);
+        }
+      }
+      long evenFrom = (k > 0) ? from : 0;
+      long evenTo = (k > 0) ? to + 1 : 0;
+
+      if (i > 0) {
+        boolean oddIsLonger = previousTo - previousFrom > evenTo - evenFrom;
+        long longerFrom = oddIsLonger ? previousFrom : evenFrom;
+        long longerTo = oddIsLonger ? previousTo : evenTo;
+
+        if (longerTo - longerFrom > longestTo - longestFrom) {
+          longestFrom = longerFrom;
+          longestTo = longerTo;
+        }
+      }
+      previousFrom = oddFrom;
+      previousTo = oddTo;
+
+      center = nextLetter(center, i + 1);
+    }
+
+    if (previousTo - previousFrom > longestTo - longestFrom) {
+      longestFrom = previousFrom;
+      longestTo = previousTo;
+    }
+    return new Palindrome(longestFrom, longestTo, extract(longestFrom, longestTo));
+  }
+
+  /**
+   * Returns the position of a letter, given the position of the letter before it. Letters are
+   * found by scanning the file forward, and the positions of those in the window are reused.
+   *
+   * @param position the position of the letter before, or {@code -1} for the first letter
+   * @param index    the index of the letter to find
+   * @return the position of the letter, or {@code -1} if there are no more letters
+   */
+  private long nextLetter(long position, long index) {
+    if (index < letterCount) {
+      if (inWindow(index)) {
+        return positions[slot(index)];
+      }
+      long p = position + 1;
+      while (!isLetter(byteAt(p))) {
+        p++;
+      }
+      return p;
+    }
+
+    for (long p = scanPosition; p < size; p++) {
+      if (isLetter(byteAt(p))) {
+        long replaced = letterCount - positions.length;
+        if (replaced >= windowStart && replaced >= keptFrom) {
+          growWindow();
+        }
+        positions[slot(letterCount++)] = p;
+        windowStart = Math.max(windowStart, letterCount - positions.length);
+        scanPosition = p + 1;
+        return p;
+      }
+    }
+    scanPosition = size;
+    return -1;
+  }
+
+  /**
+   * Returns the position of a letter, given the position of the letter after it. The positions of
+   * the letters in the window are reused, and the others are found by scanning the file backward.
+   *
+   * @param position the position of the letter after
+   * @param index    the index of the letter to find
+   * @return the position of the letter, or {@code -1} if there is none
+   */
+  private long previousLetter(long position, long index) {
+    if (index < 0) {
+      return -1;
+    }
+    if (inWindow(index)) {
+      return positions[slot(index)];
+    }
+    for (long p = position - 1; p >= 0; p--) {
+      if (isLetter(byteAt(p))) {
+        return p;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Makes sure the letter with the specified index stays in the window while the current center is
+   * searched. Letters before the window are found again by scanning the file.
+   *
+   * @param index the index of the letter
+   */
+  private void keep(long index) {
+    keptFrom = Math.min(keptFrom, index);
+  }
+
+  /**
+   * Brings the letters before the window back into it, after a palindrome starting before the
+   * window has been found, so that the radii of its left half can be reused through their mirrors.
+   * <p>
+   * The positions of the letters are found again by scanning the file, and their radii are found
+   * again by running Manacher's algorithm over the letters from the first one brought back. A
+   * palindrome centered at one of them is thus cut at that first letter, which is where the
+   * palindrome being mirrored starts anyway. The letters brought back are never more than the
+   * letters the palindrome has just been extended by past the previous one, so the search stays
+   * linear.
+   * </p>
+   *
+   * @param index    the index of the first letter to bring back
+   * @param position the position of that letter
+   */
+  private void refill(long index, long position) {
+    while (letterCount - index > positions.length) {
+      growWindow();
+    }
+
+    long end = windowStart;
+    windowStart = index;
+    for (long j = index; j < end; j++) {
+      positions[slot(j)] = position;
+      do {
+        position++;
+      } while (j + 1 < end && !isLetter(byteAt(position)));
+    }
+
+    long oddLeft = 0;
+    long oddRight = -1;
+    long evenLeft = 0;
+    long evenRight = -1;
+    for (long j = index; j < end; j++) {
+      int k = 1;
+      if (j <= oddRight) {
+        k = (int) Math.min(oddRadii[slot(oddLeft + oddRight - j)], oddRight - j + 1);
+      }
+      while (j - k >= index && j + k < letterCount && sameLetterAt(j - k, j + k)) {
+        k++;
+      }
+      oddRadii[slot(j)] = k;
+      if (j + k - 1 > oddRight) {
+        oddLeft = j - k + 1;
+        oddRight = j + k - 1;
+      }
+
+      k = 0;
+      if (j <= evenRight) {
+        k = (int) Math.min(evenRadii[slot(evenLeft + evenRight - j + 1)], evenRight - j + 1);
+      }
+      while (j - k - 1 >= index && j + k < letterCount && sameLetterAt(j - k - 1, j + k)) {
+        k++;
+      }
+      evenRadii[slot(j)] = k;
+      if (j + k - 1 > evenRight) {
+        evenLeft = j - k;
+        evenRight = j + k - 1;
+      }
+    }
+  }
+
+  /**
+   * Doubles the size of the window, moving the kept letters to their slots in the larger one.
+   */
+  private void growWindow() {
+    int capacity = positions.length * 2;
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Palindrome is too long to be searched.");
+    }
+    var newPositions = new long[capacity];
+    var newOddRadii = new int[capacity];
+    var newEvenRadii = new int[capacity];
+    int newMask = capacity - 1;
+
+    for (long index = windowStart; index < letterCount; index++) {
+      int from = slot(index);
+      int to = (int) (index & newMask);
+      newPositions[to] = positions[from];
+      newOddRadii[to] = oddRadii[from];
+      newEvenRadii[to] = evenRadii[from];
+    }
+
+    positions = newPositions;
+    oddRadii = newOddRadii;
+    evenRadii = newEvenRadii;
+    windowMask = newMask;
+  }
+
+  /**
+   * Checks whether the position and radii of a letter are still kept in the window.
+   *
+   * @param index the index of the letter
+   * @return {@code true} if the letter is in the window
+   */
+  private boolean inWindow(long index) {
+    return index >= windowStart && index < letterCount;
+  }
+
+  private int slot(long index) {
+    return (int) (index & windowMask);
+  }
+
+  private boolean sameLetterAt(long leftIndex, long rightIndex) {
+    return sameLetters(positions[slot(leftIndex)], positions[slot(rightIndex)]);
+  }
+
+  private boolean sameLetters(long left, long right) {
+    return (byteAt(left) | 0x20) == (byteAt(right) | 0x20);
+  }
+
+  private byte byteAt(long position) {
+    return chunks[(int) (position >>> CHUNK_BITS)].get((int) (position & CHUNK_MASK));
+  }
+
+  private static boolean isLetter(byte b) {
+    return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z');
+  }
+
+  /**
+   * Copies a range of the file into a string.
+   *
+   * @param from the offset of the first byte (inclusive)
+   * @param to   the offset of the last byte (exclusive)
+   * @return the decoded range
+   * @throws IllegalArgumentException if the range does not fit into a string
+   */
+  private String extract(long from, long to) {
+    if (to - from > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException("Palindrome is too long to be extracted.");
+    }
+    var bytes = new byte[(int) (to - from)];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = byteAt(from + i);
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
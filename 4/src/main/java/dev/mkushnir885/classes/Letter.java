@@ -11,6 +11,18 @@ public class Letter {
    */
   public final static String REGEX = "[a-zA-Z]";
 
+  /**
+   * Shared instances of all ASCII letters, indexed by their character value.
+   */
+  private static final Letter[] CACHE = new Letter[128];
+
+  static {
+    for (char c = 'a'; c <= 'z'; c++) {
+      CACHE[c] = new Letter(c);
+      CACHE[Character.toUpperCase(c)] = new Letter(Character.toUpperCase(c));
+    }
+  }
+
   /**
    * The character value of the letter.
    */
@@ -27,6 +39,26 @@ public class Letter {
     value = letter.charAt(0);
   }
 
+  /**
+   * Constructs a {@code Letter} instance from a character.
+   *
+   * @param value the letter character
+   */
+  private Letter(char value) {
+    this.value = value;
+  }
+
+  /**
+   * Returns a shared {@code Letter} instance for the specified character. Letters are immutable,
+   * so a single instance per character is enough for any number of occurrences in a text.
+   *
+   * @param value the letter character, should match the {@link #REGEX}
+   * @return a {@code Letter} representing the character
+   */
+  public static Letter of(char value) {
+    return value < CACHE.length && CACHE[value] != null ? CACHE[value] : new Letter(value);
+  }
+
   /**
    * Compares this letter with another for equality, ignoring case.
    *
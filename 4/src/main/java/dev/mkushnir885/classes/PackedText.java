@@ -0,0 +1,360 @@
+package dev.mkushnir885.classes;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Packed storage shared by the {@code Text}, {@code Sentence} and {@code Word} views. The whole
+ * text is kept in two byte arrays, one holding the printed characters and one holding only the
+ * letters, together with word and sentence boundary offsets. A {@code PackedText} is immutable once
+ * built.
+ * <p>
+ * Only ASCII characters can be stored, since letters are limited to {@link Letter#REGEX} and
+ * punctuation to {@link Punctuation#REGEX}.
+ * </p>
+ */
+final class PackedText {
+
+  /**
+   * An empty packed text, used by empty views.
+   */
+  static final PackedText EMPTY = new Builder(0).build();
+
+  /**
+   * The printed characters of the text, including punctuation and single spaces.
+   */
+  private final byte[] chars;
+
+  /**
+   * The letters of the text, in order of appearance.
+   */
+  private final byte[] letters;
+
+  /**
+   * The index in {@link #letters} of the first letter of each word, followed by the total count of
+   * letters.
+   */
+  private final int[] wordLetterStarts;
+
+  /**
+   * The index in {@link #chars} of the first letter of each word.
+   */
+  private final int[] wordCharStarts;
+
+  /**
+   * The index of the first word of each sentence, followed by the total count of words.
+   */
+  private final int[] sentenceWordStarts;
+
+  /**
+   * The index in {@link #chars} of the first character of each sentence, followed by the total
+   * count of characters.
+   */
+  private final int[] sentenceCharStarts;
+
+  /**
+   * The index in {@link #letters} of the first letter of each sentence, followed by the total count
+   * of letters. Together with {@link #wordLetterStarts} these prefix sums of letter counts let a
+   * letter index be mapped to its sentence and word by binary search.
+   */
+  private final int[] sentenceLetterStarts;
+
+  /**
+   * Constructs a {@code PackedText} from the arrays filled by a {@link Builder}.
+   */
+  private PackedText(byte[] chars, byte[] letters, int[] wordLetterStarts, int[] wordCharStarts,
+      int[] sentenceWordStarts, int[] sentenceCharStarts) {
+    this.chars = chars;
+    this.letters = letters;
+    this.wordLetterStarts = wordLetterStarts;
+    this.wordCharStarts = wordCharStarts;
+    this.sentenceWordStarts = sentenceWordStarts;
+    this.sentenceCharStarts = sentenceCharStarts;
+
+    sentenceLetterStarts = new int[sentenceWordStarts.length];
+    for (int i = 0; i < sentenceWordStarts.length; i++) {
+      sentenceLetterStarts[i] = wordLetterStarts[sentenceWordStarts[i]];
+    }
+  }
+
+  /**
+   * Returns the number of printed characters in the text.
+   *
+   * @return the number of characters
+   */
+  int charCount() {
+    return chars.length;
+  }
+
+  /**
+   * Returns the number of letters in the text.
+   *
+   * @return the number of letters
+   */
+  int letterCount() {
+    return letters.length;
+  }
+
+  /**
+   * Returns the number of sentences in the text.
+   *
+   * @return the number of sentences
+   */
+  int sentenceCount() {
+    return sentenceCharStarts.length - 1;
+  }
+
+  /**
+   * Returns the letter at the specified index.
+   *
+   * @param letter the index of the letter
+   * @return the letter character
+   */
+  char letterAt(int letter) {
+    return (char) letters[letter];
+  }
+
+  /**
+   * Returns the index of the sentence containing the specified letter in {@code O(log n)} time.
+   *
+   * @param letter the index of the letter
+   * @return the index of the sentence
+   */
+  int sentenceOf(int letter) {
+    return floorIndex(sentenceLetterStarts, 0, sentenceCount(), letter);
+  }
+
+  /**
+   * Returns the index of the word containing the specified letter in {@code O(log n)} time. The
+   * sentence of the letter is looked up first, then the word among the words of that sentence.
+   *
+   * @param letter the index of the letter
+   * @return the index of the word
+   */
+  int wordOf(int letter) {
+    if (sentenceCount() == 0) {
+      return floorIndex(wordLetterStarts, 0, wordCharStarts.length, letter);
+    }
+    int sentence = sentenceOf(letter);
+    return floorIndex(wordLetterStarts,
+        sentenceWordStarts[sentence], sentenceWordStarts[sentence + 1], letter);
+  }
+
+  /**
+   * Returns the index in the printed characters of the specified letter.
+   *
+   * @param letter the index of the letter
+   * @return the position of the letter among the printed characters
+   */
+  int charPositionOf(int letter) {
+    int word = wordOf(letter);
+    return wordCharStarts[word] + (letter - wordLetterStarts[word]);
+  }
+
+  /**
+   * Returns the index of the first letter of the specified sentence.
+   *
+   * @param sentence the index of the sentence, or the sentence count for the end of the text
+   * @return the index of the first letter
+   */
+  int sentenceLetterStart(int sentence) {
+    return sentenceLetterStarts[sentence];
+  }
+
+  /**
+   * Returns the index in the printed characters of the first character of the specified sentence.
+   *
+   * @param sentence the index of the sentence, or the sentence count for the end of the text
+   * @return the position of the first character of the sentence
+   */
+  int sentenceCharStart(int sentence) {
+    return sentenceCharStarts[sentence];
+  }
+
+  /**
+   * Returns the letters of the specified range.
+   *
+   * @param from the index of the first letter (inclusive)
+   * @param to   the index of the last letter (exclusive)
+   * @return an array of shared {@code Letter} instances
+   */
+  Letter[] getLetters(int from, int to) {
+    var result = new Letter[to - from];
+    for (int i = from; i < to; i++) {
+      result[i - from] = Letter.of((char) letters[i]);
+    }
+    return result;
+  }
+
+  /**
+   * Materializes the letters of the specified range as a string.
+   *
+   * @param from the index of the first letter (inclusive)
+   * @param to   the index of the last letter (exclusive)
+   * @return the letters as a string
+   */
+  String lettersToString(int from, int to) {
+    return new String(letters, from, to - from, StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * Materializes the printed characters of the specified range as a string.
+   *
+   * @param from the position of the first character (inclusive)
+   * @param to   the position of the last character (exclusive)
+   * @return the characters as a string
+   */
+  String charsToString(int from, int to) {
+    return new String(chars, from, to - from, StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * Finds the last index in the specified range of a sorted array whose value does not exceed the
+   * key.
+   *
+   * @param starts the ascending array of range starts
+   * @param from   the first index to search (inclusive)
+   * @param to     the last index to search (exclusive)
+   * @param key    the value to search for
+   * @return the index of the range containing the key, or {@code from - 1} if the key precedes all
+   * ranges
+   */
+  private static int floorIndex(int[] starts, int from, int to, int key) {
+    int low = from;
+    int high = to;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (starts[mid] <= key) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low - 1;
+  }
+
+  /**
+   * Accumulates the sentences, words and punctuation of a text into packed arrays.
+   */
+  static final class Builder {
+
+    private byte[] chars;
+    private int charCount;
+
+    private byte[] letters;
+    private int letterCount;
+
+    private int[] wordLetterStarts = new int[16];
+    private int[] wordCharStarts = new int[16];
+    private int wordCount;
+
+    private int[] sentenceWordStarts = new int[16];
+    private int[] sentenceCharStarts = new int[16];
+    private int sentenceCount;
+
+    /**
+     * Constructs a builder sized for a text of approximately the specified length.
+     *
+     * @param capacity the expected number of characters
+     */
+    Builder(int capacity) {
+      chars = new byte[Math.max(capacity, 16)];
+      letters = new byte[Math.max(capacity, 16)];
+    }
+
+    /**
+     * Returns the number of characters appended so far.
+     *
+     * @return the number of characters
+     */
+    int charCount() {
+      return charCount;
+    }
+
+    /**
+     * Starts a new sentence at the current position.
+     */
+    void startSentence() {
+      if (sentenceCount == sentenceWordStarts.length) {
+        sentenceWordStarts = Arrays.copyOf(sentenceWordStarts, sentenceCount * 2);
+        sentenceCharStarts = Arrays.copyOf(sentenceCharStarts, sentenceCount * 2);
+      }
+      sentenceWordStarts[sentenceCount] = wordCount;
+      sentenceCharStarts[sentenceCount] = charCount;
+      sentenceCount++;
+    }
+
+    /**
+     * Returns the number of letters appended since the current sentence was started.
+     *
+     * @return the number of letters in the current sentence
+     */
+    int sentenceLetterCount() {
+      return letterCount - wordLetterStart(sentenceWordStarts[sentenceCount - 1]);
+    }
+
+    /**
+     * Starts a new word at the current position.
+     */
+    void startWord() {
+      if (wordCount == wordLetterStarts.length) {
+        wordLetterStarts = Arrays.copyOf(wordLetterStarts, wordCount * 2);
+        wordCharStarts = Arrays.copyOf(wordCharStarts, wordCount * 2);
+      }
+      wordLetterStarts[wordCount] = letterCount;
+      wordCharStarts[wordCount] = charCount;
+      wordCount++;
+    }
+
+    /**
+     * Appends a letter to the current word.
+     *
+     * @param letter the letter character, must match {@link Letter#REGEX}
+     */
+    void appendLetter(char letter) {
+      appendChar(letter);
+      if (letterCount == letters.length) {
+        letters = Arrays.copyOf(letters, letterCount * 2);
+      }
+      letters[letterCount++] = (byte) letter;
+    }
+
+    /**
+     * Appends a punctuation mark or a space to the current sentence.
+     *
+     * @param c the punctuation character matching {@link Punctuation#REGEX}, or a space
+     */
+    void appendChar(char c) {
+      if (charCount == chars.length) {
+        chars = Arrays.copyOf(chars, charCount * 2);
+      }
+      chars[charCount++] = (byte) c;
+    }
+
+    /**
+     * Builds an immutable {@code PackedText} from the accumulated content.
+     *
+     * @return the packed text
+     */
+    PackedText build() {
+      var wordLetters = Arrays.copyOf(wordLetterStarts, wordCount + 1);
+      var sentenceWords = Arrays.copyOf(sentenceWordStarts, sentenceCount + 1);
+      var sentenceChars = Arrays.copyOf(sentenceCharStarts, sentenceCount + 1);
+      wordLetters[wordCount] = letterCount;
+      sentenceWords[sentenceCount] = wordCount;
+      sentenceChars[sentenceCount] = charCount;
+
+      return new PackedText(
+          Arrays.copyOf(chars, charCount),
+          Arrays.copyOf(letters, letterCount),
+          wordLetters,
+          Arrays.copyOf(wordCharStarts, wordCount),
+          sentenceWords,
+          sentenceChars);
+    }
+
+    private int wordLetterStart(int word) {
+      return word < wordCount ? wordLetterStarts[word] : letterCount;
+    }
+  }
+}
@@ -1,7 +1,5 @@
 package dev.mkushnir885.classes;
 
-import java.util.regex.Pattern;
-
 /**
  * Represents a sentence, which is composed of words and punctuation items. A {@code Sentence} is
  * immutable and provides methods to analyze and manipulate its content.
@@ -16,14 +14,29 @@ public class Sentence {
       .format("(%s|%s| )*?[.!?]( |$)", Letter.REGEX, Punctuation.REGEX);
 
   /**
-   * The array of {@code SentenceItem} objects representing the components of the sentence.
+   * The packed text holding the content of the sentence.
+   */
+  private final PackedText packed;
+
+  /**
+   * The index of the first letter of the sentence in the packed text (inclusive).
+   */
+  private final int letterFrom;
+
+  /**
+   * The index of the last letter of the sentence in the packed text (exclusive).
+   */
+  private final int letterTo;
+
+  /**
+   * The position of the first character of the sentence in the packed text (inclusive).
    */
-  private final SentenceItem[] items;
+  private final int charFrom;
 
   /**
-   * The total count of letters in the sentence.
+   * The position of the last character of the sentence in the packed text (exclusive).
    */
-  private int letterCount;
+  private final int charTo;
 
   /**
    * Constructs a {@code Sentence} from a string.
@@ -32,36 +45,35 @@ public class Sentence {
    * @throws IllegalArgumentException if the input string does not contain any words
    */
   public Sentence(String sentence) {
-    items = Pattern
-        .compile(String.format("(%s|%s) ?", Word.REGEX, Punctuation.REGEX))
-        .matcher(sentence)
-        .results()
-        .map(res -> {
-          String item = res.group();
-          if (item.trim().matches(Word.REGEX)) {
-            var word = new Word(item);
-            letterCount += word.len();
-            return word;
-          } else {
-            return new Punctuation(item);
-          }
-        })
-        .toArray(SentenceItem[]::new);
-
-    if (letterCount == 0) {
+    var builder = new PackedText.Builder(sentence.length());
+    TextLexer.lexSentence(sentence, builder);
+
+    if (builder.sentenceLetterCount() == 0) {
       throw new IllegalArgumentException("No words in sentence.");
     }
+
+    packed = builder.build();
+    letterFrom = 0;
+    letterTo = packed.letterCount();
+    charFrom = 0;
+    charTo = packed.charCount();
   }
 
   /**
-   * Private constructor for creating a new {@code Sentence} from a subset of items.
+   * Constructs a {@code Sentence} view over a range of a packed text.
    *
-   * @param items       the array of sentence items
-   * @param letterCount the total count of letters in the sentence
+   * @param packed     the packed text holding the content
+   * @param letterFrom the index of the first letter (inclusive)
+   * @param letterTo   the index of the last letter (exclusive)
+   * @param charFrom   the position of the first character (inclusive)
+   * @param charTo     the position of the last character (exclusive)
    */
-  private Sentence(SentenceItem[] items, int letterCount) {
-    this.items = items;
-    this.letterCount = letterCount;
+  Sentence(PackedText packed, int letterFrom, int letterTo, int charFrom, int charTo) {
+    this.packed = packed;
+    this.letterFrom = letterFrom;
+    this.letterTo = letterTo;
+    this.charFrom = charFrom;
+    this.charTo = charTo;
   }
 
   /**
@@ -70,7 +82,7 @@ public class Sentence {
    * @return the number of letters
    */
   public int letterCount() {
-    return letterCount;
+    return letterTo - letterFrom;
   }
 
   /**
@@ -79,17 +91,7 @@ public class Sentence {
    * @return an array of {@code Letter} objects representing all letters in the sentence
    */
   public Letter[] getLetters() {
-    Letter[] letters = new Letter[letterCount];
-    int i = 0;
-
-    for (var item : items) {
-      if (item instanceof Word word) {
-        for (var letter : word.getLetters()) {
-          letters[i++] = letter;
-        }
-      }
-    }
-    return letters;
+    return packed.getLetters(letterFrom, letterTo);
   }
 
   /**
@@ -99,34 +101,11 @@ public class Sentence {
    * @return a new {@code Sentence} with the specified letters removed from the start
    */
   public Sentence trimStartByLetter(int startIdx) {
-    int remainingToTrim = startIdx;
-    for (int i = 0; i < items.length; i++) {
-      if (items[i] instanceof Word word) {
-        if (remainingToTrim < word.len()) {
-          var newItems = new SentenceItem[items.length - i];
-          newItems[0] = word.trimStart(remainingToTrim);
-          System.arraycopy(items, i + 1, newItems, 1, newItems.length - 1);
-          return new Sentence(newItems, letterCount - startIdx);
-        }
-
-        if (remainingToTrim == word.len()) {
-          int nextWordIdx = i + 1;
-          for (; nextWordIdx < items.length; nextWordIdx++) {
-            if (items[nextWordIdx] instanceof Word) {
-              break;
-            }
-          }
-          var newItems = new SentenceItem[items.length - nextWordIdx];
-          if (newItems.length > 0) {
-            System.arraycopy(items, nextWordIdx, newItems, 0, newItems.length);
-          }
-          return new Sentence(newItems, letterCount - startIdx);
-        }
-
-        remainingToTrim -= word.len();
-      }
+    if (startIdx >= letterCount()) {
+      return new Sentence(PackedText.EMPTY, 0, 0, 0, 0);
     }
-    return new Sentence(new SentenceItem[0], 0);
+    int from = letterFrom + startIdx;
+    return new Sentence(packed, from, letterTo, packed.charPositionOf(from), charTo);
   }
 
   /**
@@ -136,22 +115,21 @@ public class Sentence {
    * @return a new {@code Sentence} with the specified letters retained from the start
    */
   public Sentence trimEndByLetter(int endIdx) {
-    int curLetterCount = letterCount;
-    for (int i = items.length - 1; i >= 0; i--) {
-      if (items[i] instanceof Word word) {
-        int nextLetterCount = curLetterCount - word.len();
-
-        if (nextLetterCount < endIdx) {
-          var newItems = new SentenceItem[i + 1];
-          newItems[i] = word.trimEnd(endIdx - nextLetterCount);
-          System.arraycopy(items, 0, newItems, 0, i);
-          return new Sentence(newItems, endIdx);
-        }
-
-        curLetterCount -= word.len();
-      }
+    if (endIdx <= 0) {
+      return new Sentence(PackedText.EMPTY, 0, 0, 0, 0);
     }
-    return new Sentence(new SentenceItem[0], 0);
+    int to = Math.min(letterFrom + endIdx, letterTo);
+    return new Sentence(packed, letterFrom, to, charFrom, packed.charPositionOf(to - 1) + 1);
+  }
+
+  /**
+   * Returns a {@code Text} view of this sentence, sharing its content. This allows text analyses to
+   * be applied to individual sentences.
+   *
+   * @return a text consisting of this sentence
+   */
+  public Text toText() {
+    return Text.view(packed, letterFrom, letterTo, charFrom, charTo);
   }
 
   /**
@@ -160,11 +138,7 @@ public class Sentence {
    * @return the string length of the sentence
    */
   public int strLen() {
-    int len = 0;
-    for (var item : items) {
-      len += item.strLen();
-    }
-    return len;
+    return charTo - charFrom;
   }
 
   /**
@@ -174,10 +148,6 @@ public class Sentence {
    */
   @Override
   public String toString() {
-    var sb = new StringBuilder();
-    for (var item : items) {
-      sb.append(item);
-    }
-    return sb.toString();
+    return packed.charsToString(charFrom, charTo);
   }
 }
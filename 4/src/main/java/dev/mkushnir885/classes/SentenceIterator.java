@@ -0,0 +1,132 @@
+package dev.mkushnir885.classes;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An iterator over the sentences of a text read from a {@link Reader}. The input is read through a
+ * fixed-size buffer and each sentence is packed on its own, so the memory used does not depend on
+ * the length of the text, only on the length of the longest sentence.
+ */
+class SentenceIterator implements Iterator<Sentence> {
+
+  /**
+   * The number of characters read from the reader at once.
+   */
+  private static final int BUFFER_SIZE = 8192;
+
+  /**
+   * The expected number of characters in a sentence, used to size sentence builders.
+   */
+  private static final int SENTENCE_CAPACITY = 256;
+
+  /**
+   * The reader providing the text.
+   */
+  private final Reader reader;
+
+  /**
+   * The lexer splitting the text into sentences.
+   */
+  private final TextLexer lexer = new TextLexer(SENTENCE_CAPACITY, true);
+
+  /**
+   * The buffer holding characters read but not yet fed to the lexer.
+   */
+  private final char[] buffer = new char[BUFFER_SIZE];
+
+  /**
+   * The position of the next unprocessed character in the buffer.
+   */
+  private int position;
+
+  /**
+   * The number of valid characters in the buffer.
+   */
+  private int limit;
+
+  /**
+   * Whether the end of the input has been reached.
+   */
+  private boolean finished;
+
+  /**
+   * The next sentence to return, or {@code null} if it has not been read yet.
+   */
+  private Sentence next;
+
+  /**
+   * Constructs an iterator over the sentences of the text provided by the reader.
+   *
+   * @param reader the reader providing the text
+   */
+  SentenceIterator(Reader reader) {
+    this.reader = reader;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if the text read so far is invalid or has a sentence without
+   *                                  words
+   * @throws UncheckedIOException     if reading from the reader fails
+   */
+  @Override
+  public boolean hasNext() {
+    if (next == null && !finished) {
+      next = readSentence();
+    }
+    return next != null;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if the text read so far is invalid or has a sentence without
+   *                                  words
+   * @throws UncheckedIOException     if reading from the reader fails
+   */
+  @Override
+  public Sentence next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    var sentence = next;
+    next = null;
+    return sentence;
+  }
+
+  /**
+   * Feeds characters to the lexer until a sentence is completed or the input ends.
+   *
+   * @return the completed sentence, or {@code null} if the input ended without one
+   */
+  private Sentence readSentence() {
+    try {
+      while (true) {
+        while (position < limit) {
+          if (lexer.accept(buffer[position++])) {
+            return toSentence(lexer.take());
+          }
+        }
+
+        limit = reader.read(buffer);
+        position = 0;
+
+        if (limit < 0) {
+          finished = true;
+          return lexer.finish() ? toSentence(lexer.take()) : null;
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static Sentence toSentence(PackedText packed) {
+    return new Sentence(packed, 0, packed.letterCount(), 0, packed.charCount());
+  }
+}
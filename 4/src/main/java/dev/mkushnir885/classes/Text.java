@@ -1,6 +1,15 @@
 package dev.mkushnir885.classes;
 
-import java.util.regex.Pattern;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Represents a text composed of multiple sentences. A {@code Text} is immutable and provides
@@ -9,65 +18,198 @@ import java.util.regex.Pattern;
 public class Text {
 
   /**
-   * The array of {@code Sentence} objects representing the sentences in the text.
+   * The packed text holding the content of the text.
    */
-  private final Sentence[] sentences;
+  private final PackedText packed;
 
   /**
-   * The total count of letters in the text.
+   * The index of the first letter of the text in the packed text (inclusive).
    */
-  private int letterCount;
+  private final int letterFrom;
+
+  /**
+   * The index of the last letter of the text in the packed text (exclusive).
+   */
+  private final int letterTo;
+
+  /**
+   * The position of the first character of the text in the packed text (inclusive).
+   */
+  private final int charFrom;
+
+  /**
+   * The position of the last character of the text in the packed text (exclusive).
+   */
+  private final int charTo;
 
   /**
    * Constructs a {@code Text} object from a string.
    * <p>
    * The input text is normalized by replacing multiple spaces with a single space. The text must
-   * match a sequence of valid {@code Sentence} objects.
+   * match a sequence of valid {@code Sentence} objects. Validation and splitting are done by a
+   * single scan over the input.
    * </p>
    *
    * @param text the string representation of the text, must not be null or empty
    * @throws IllegalArgumentException if the input text is invalid or contains no valid sentences
    */
   public Text(String text) {
-    text = text.replaceAll("\\s+", " ");
+    packed = TextLexer.lexText(text);
+    letterFrom = 0;
+    letterTo = packed.letterCount();
+    charFrom = 0;
+    charTo = packed.charCount();
+  }
+
+  /**
+   * Private constructor for creating a new {@code Text} as a view over a range of a packed text.
+   *
+   * @param packed     the packed text holding the content
+   * @param letterFrom the index of the first letter (inclusive)
+   * @param letterTo   the index of the last letter (exclusive)
+   * @param charFrom   the position of the first character (inclusive)
+   * @param charTo     the position of the last character (exclusive)
+   */
+  private Text(PackedText packed, int letterFrom, int letterTo, int charFrom, int charTo) {
+    this.packed = packed;
+    this.letterFrom = letterFrom;
+    this.letterTo = letterTo;
+    this.charFrom = charFrom;
+    this.charTo = charTo;
+  }
+
+  /**
+   * Reads a {@code Text} from a reader.
+   * <p>
+   * The text is parsed while it is read through a fixed-size buffer, so it is never held in memory
+   * as a string. Only the packed content is kept. The reader is not closed.
+   * </p>
+   *
+   * @param reader the reader providing the text
+   * @return the text read
+   * @throws IOException              if reading from the reader fails
+   * @throws IllegalArgumentException if the text is invalid or contains no valid sentences
+   */
+  public static Text read(Reader reader) throws IOException {
+    var lexer = new TextLexer(8192, false);
+    var buffer = new char[8192];
 
-    if (!text.matches(String.format("(%s)+", Sentence.REGEX))) {
-      throw new IllegalArgumentException("Invalid text.");
+    int count;
+    while ((count = reader.read(buffer)) >= 0) {
+      for (int i = 0; i < count; i++) {
+        lexer.accept(buffer[i]);
+      }
     }
+    lexer.finish();
+    return view(lexer.take());
+  }
 
-    sentences = Pattern
-        .compile(Sentence.REGEX)
-        .matcher(text)
-        .results()
-        .map(res -> {
-          var sentence = new Sentence(res.group());
-          letterCount += sentence.letterCount();
-          return sentence;
-        })
-        .toArray(Sentence[]::new);
+  /**
+   * Reads a {@code Text} from a UTF-8 encoded file.
+   *
+   * @param path the path to the file
+   * @return the text read
+   * @throws IOException              if reading from the file fails
+   * @throws IllegalArgumentException if the text is invalid or contains no valid sentences
+   * @see #read(Reader)
+   */
+  public static Text read(Path path) throws IOException {
+    try (var reader = Files.newBufferedReader(path)) {
+      return read(reader);
+    }
   }
 
   /**
-   * Private constructor for creating a new {@code Text} from a subset of sentences.
+   * Returns a lazily populated stream of the sentences of a text provided by a reader.
+   * <p>
+   * Sentences are parsed one by one while the stream is consumed, and each sentence holds only its
+   * own content, so sentence-local analyses run in memory bounded by the longest sentence. Unlike
+   * {@link #Text(String)}, an invalid part of the text is reported only when the stream reaches
+   * it. The reader is closed when the stream is closed.
+   * </p>
    *
-   * @param sentences   the array of sentences in the text
-   * @param letterCount the total count of letters in the text
+   * @param reader the reader providing the text
+   * @return a stream of the sentences of the text
+   * @throws IllegalArgumentException from the stream operations, if the text is invalid or a
+   *                                  sentence has no words
+   * @throws UncheckedIOException     from the stream operations, if reading from the reader fails
    */
-  private Text(Sentence[] sentences, int letterCount) {
-    this.sentences = sentences;
-    this.letterCount = letterCount;
+  public static Stream<Sentence> sentences(Reader reader) {
+    var spliterator = Spliterators.spliteratorUnknownSize(new SentenceIterator(reader),
+        Spliterator.ORDERED | Spliterator.NONNULL);
+    return StreamSupport.stream(spliterator, false).onClose(() -> {
+      try {
+        reader.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
   }
 
-  public Letter[] getLetters() {
-    var letters = new Letter[letterCount];
-    int i = 0;
+  /**
+   * Returns a lazily populated stream of the sentences of a UTF-8 encoded file. The stream should
+   * be closed to close the file, for example with a try-with-resources statement.
+   *
+   * @param path the path to the file
+   * @return a stream of the sentences of the file
+   * @throws IOException if opening the file fails
+   * @see #sentences(Reader)
+   */
+  public static Stream<Sentence> sentences(Path path) throws IOException {
+    return sentences(Files.newBufferedReader(path));
+  }
 
-    for (var sentence : sentences) {
-      for (var letter : sentence.getLetters()) {
-        letters[i++] = letter;
-      }
-    }
-    return letters;
+  /**
+   * Creates a {@code Text} view over the whole content of a packed text.
+   *
+   * @param packed the packed text
+   * @return a text view of the packed text
+   */
+  static Text view(PackedText packed) {
+    return view(packed, 0, packed.letterCount(), 0, packed.charCount());
+  }
+
+  /**
+   * Creates a {@code Text} view over a range of a packed text.
+   *
+   * @param packed     the packed text holding the content
+   * @param letterFrom the index of the first letter (inclusive)
+   * @param letterTo   the index of the last letter (exclusive)
+   * @param charFrom   the position of the first character (inclusive)
+   * @param charTo     the position of the last character (exclusive)
+   * @return a text view of the range
+   */
+  static Text view(PackedText packed, int letterFrom, int letterTo, int charFrom, int charTo) {
+    return new Text(packed, letterFrom, letterTo, charFrom, charTo);
+  }
+
+  /**
+   * Returns the total number of letters in the text.
+   *
+   * @return the number of letters
+   */
+  public int letterCount() {
+    return letterTo - letterFrom;
+  }
+
+  /**
+   * Returns the letter at the specified index without allocating a letter array.
+   *
+   * @param index the index of the letter in the text
+   * @return a shared {@code Letter} instance
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public Letter letterAt(int index) {
+    return Letter.of(packed.letterAt(letterFrom + Objects.checkIndex(index, letterCount())));
+  }
+
+  /**
+   * Returns an array of all the letters in the text.
+   *
+   * @return an array of {@code Letter} objects representing all letters in the text
+   */
+  public Letter[] getLetters() {
+    return packed.getLetters(letterFrom, letterTo);
   }
 
   /**
@@ -77,29 +219,11 @@ public class Text {
    * @return a new {@code Text} with the specified letters removed from the start
    */
   public Text trimStartByLetter(int startIdx) {
-    int remainingToTrim = startIdx;
-    for (int i = 0; i < sentences.length; i++) {
-      var sentence = sentences[i];
-
-      if (remainingToTrim < sentence.letterCount()) {
-        var newSentences = new Sentence[sentences.length - i];
-        newSentences[0] = sentence.trimStartByLetter(remainingToTrim);
-        System.arraycopy(sentences, i + 1, newSentences, 1, newSentences.length - 1);
-        return new Text(newSentences, letterCount - startIdx);
-      }
-
-      if (remainingToTrim == sentence.letterCount()) {
-        var newSentences = new Sentence[sentences.length - i - 1];
-        if (newSentences.length > 0) {
-          System.arraycopy(sentences, i + 1, newSentences, 0, newSentences.length);
-          newSentences[0] = newSentences[0].trimStartByLetter(0);
-        }
-        return new Text(newSentences, letterCount - startIdx);
-      }
-
-      remainingToTrim -= sentence.letterCount();
+    if (startIdx >= letterCount()) {
+      return new Text(PackedText.EMPTY, 0, 0, 0, 0);
     }
-    return new Text(new Sentence[0], 0);
+    int from = letterFrom + startIdx;
+    return new Text(packed, from, letterTo, packed.charPositionOf(from), charTo);
   }
 
   /**
@@ -109,32 +233,34 @@ public class Text {
    * @return a new {@code Text} with the specified letters retained from the start
    */
   public Text trimEndByLetter(int endIdx) {
-    int curLetterCount = letterCount;
-    for (int i = sentences.length - 1; i >= 0; i--) {
-      var sentence = sentences[i];
-      int nextLetterCount = curLetterCount - sentence.letterCount();
-
-      if (nextLetterCount < endIdx) {
-        var newSentences = new Sentence[i + 1];
-        newSentences[i] = sentence.trimEndByLetter(endIdx - nextLetterCount);
-        System.arraycopy(sentences, 0, newSentences, 0, i);
-        return new Text(newSentences, endIdx);
-      }
-
-      curLetterCount -= sentence.letterCount();
+    if (endIdx <= 0) {
+      return new Text(PackedText.EMPTY, 0, 0, 0, 0);
     }
-    return new Text(new Sentence[0], 0);
+    int to = Math.min(letterFrom + endIdx, letterTo);
+    return new Text(packed, letterFrom, to, charFrom, packed.charPositionOf(to - 1) + 1);
   }
 
   /**
    * Extracts a substring of the text based on the range of letters.
+   * <p>
+   * The result is a view sharing the content of this text. Both ends of the range are located by
+   * binary search in {@code O(log n)} time, and no characters are copied until the view is
+   * converted to a string.
+   * </p>
    *
    * @param from the starting index of the letter range (inclusive)
    * @param to   the ending index of the letter range (exclusive)
    * @return a new {@code Text} containing the letters in the specified range
    */
   public Text substrByLetters(int from, int to) {
-    return trimEndByLetter(to).trimStartByLetter(from);
+    to = Math.min(to, letterCount());
+    if (from >= to) {
+      return new Text(PackedText.EMPTY, 0, 0, 0, 0);
+    }
+    int first = letterFrom + from;
+    int last = letterFrom + to - 1;
+    return new Text(packed, first, last + 1,
+        packed.charPositionOf(first), packed.charPositionOf(last) + 1);
   }
 
   /**
@@ -143,11 +269,7 @@ public class Text {
    * @return the string length of the text
    */
   public int strLen() {
-    int len = 0;
-    for (var sentence : sentences) {
-      len += sentence.strLen();
-    }
-    return len;
+    return charTo - charFrom;
   }
 
   /**
@@ -157,10 +279,6 @@ public class Text {
    */
   @Override
   public String toString() {
-    var sb = new StringBuilder();
-    for (var sentence : sentences) {
-      sb.append(sentence);
-    }
-    return sb.toString();
+    return packed.charsToString(charFrom, charTo);
   }
 }
@@ -0,0 +1,266 @@
+package dev.mkushnir885.classes;
+
+/**
+ * A hand-written single-pass lexer that splits texts, sentences and words into their items and
+ * appends them to a {@link PackedText.Builder}. Texts can be fed character by character, so they
+ * do not have to be held in memory as a whole. It accepts exactly the same inputs as the regular
+ * expressions {@link Letter#REGEX}, {@link Punctuation#REGEX}, {@link Word#REGEX} and
+ * {@link Sentence#REGEX}, but does not backtrack and does not create intermediate strings.
+ */
+final class TextLexer {
+
+  /**
+   * The builder receiving the content of the current text or sentence.
+   */
+  private PackedText.Builder builder;
+
+  /**
+   * The expected number of characters, used to size new builders.
+   */
+  private final int capacity;
+
+  /**
+   * Whether errors are reported as soon as they are found, rather than after the whole input is
+   * scanned.
+   */
+  private final boolean failFast;
+
+  private boolean invalid;
+  private boolean hasEmptySentence;
+  private boolean started;
+  private boolean inSentence;
+  private boolean inWord;
+  private boolean afterSentenceEnd;
+  private boolean lastIsSpace;
+
+  /**
+   * Constructs a lexer for a text fed character by character.
+   *
+   * @param capacity the expected number of characters of the text, or of a single sentence if the
+   *                 text is taken sentence by sentence
+   * @param failFast {@code true} to report errors as soon as they are found; {@code false} to
+   *                 report them after the whole input is scanned, with invalid characters taking
+   *                 precedence over sentences without words
+   */
+  TextLexer(int capacity, boolean failFast) {
+    this.capacity = capacity;
+    this.failFast = failFast;
+    builder = new PackedText.Builder(capacity);
+  }
+
+  /**
+   * Validates a text and splits it into sentences, words and punctuation in a single scan.
+   * <p>
+   * Every run of whitespace is treated as a single space and a leading space is dropped. A
+   * sentence ends at the first {@code '.'}, {@code '!'} or {@code '?'} followed by a space or by
+   * the end of the text.
+   * </p>
+   *
+   * @param text the text to split
+   * @return the packed text
+   * @throws IllegalArgumentException if the text does not match a sequence of
+   *                                  {@link Sentence#REGEX}, or if a sentence has no words
+   */
+  static PackedText lexText(CharSequence text) {
+    var lexer = new TextLexer(text.length(), false);
+    for (int i = 0; i < text.length(); i++) {
+      lexer.accept(text.charAt(i));
+    }
+    lexer.finish();
+    return lexer.take();
+  }
+
+  /**
+   * Feeds the next character of the text to the lexer.
+   *
+   * @param c the next character
+   * @return {@code true} if the character completes a sentence
+   * @throws IllegalArgumentException in the fail-fast mode, if the character is invalid or
+   *                                  completes a sentence without words
+   */
+  boolean accept(char c) {
+    if (invalid) {
+      return false;
+    }
+
+    if (isWhitespace(c)) {
+      if (lastIsSpace) {
+        return false;
+      }
+      lastIsSpace = true;
+      inWord = false;
+
+      if (!started) {
+        return false;
+      }
+      builder.appendChar(' ');
+      return afterSentenceEnd && endSentence();
+    }
+
+    lastIsSpace = false;
+    started = true;
+    if (!inSentence) {
+      builder.startSentence();
+      inSentence = true;
+    }
+
+    if (isLetter(c)) {
+      if (!inWord) {
+        builder.startWord();
+        inWord = true;
+      }
+      builder.appendLetter(c);
+      afterSentenceEnd = false;
+    } else if (isPunctuation(c)) {
+      builder.appendChar(c);
+      inWord = false;
+      afterSentenceEnd = isSentenceEnd(c);
+    } else {
+      invalid = true;
+      if (failFast) {
+        checkErrors();
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Signals the end of the input.
+   *
+   * @return {@code true} if the end of the input completes a sentence
+   * @throws IllegalArgumentException if the text is invalid or has a sentence without words
+   */
+  boolean finish() {
+    boolean completed = !invalid && afterSentenceEnd && endSentence();
+    if (!completed && (inSentence || !started)) {
+      invalid = true;
+    }
+    checkErrors();
+    return completed;
+  }
+
+  /**
+   * Builds the content accumulated so far and starts accumulating into a new builder.
+   *
+   * @return the packed text with all sentences completed since the previous call
+   */
+  PackedText take() {
+    var packed = builder.build();
+    builder = new PackedText.Builder(capacity);
+    return packed;
+  }
+
+  private boolean endSentence() {
+    hasEmptySentence |= builder.sentenceLetterCount() == 0;
+    inSentence = false;
+    afterSentenceEnd = false;
+    if (failFast) {
+      checkErrors();
+    }
+    return true;
+  }
+
+  private void checkErrors() {
+    if (invalid) {
+      throw new IllegalArgumentException("Invalid text.");
+    }
+    if (hasEmptySentence) {
+      throw new IllegalArgumentException("No words in sentence.");
+    }
+  }
+
+  /**
+   * Splits a sentence into words and punctuation and appends them to the builder as a new
+   * sentence. Characters that are neither letters nor punctuation are skipped, and a single space
+   * directly following a word or a punctuation mark is kept.
+   *
+   * @param sentence the sentence to split
+   * @param builder  the builder to append the sentence to
+   */
+  static void lexSentence(CharSequence sentence, PackedText.Builder builder) {
+    builder.startSentence();
+
+    boolean inWord = false;
+    boolean afterItem = false;
+
+    for (int i = 0; i < sentence.length(); i++) {
+      char c = sentence.charAt(i);
+
+      if (isLetter(c)) {
+        if (!inWord) {
+          builder.startWord();
+          inWord = true;
+        }
+        builder.appendLetter(c);
+        afterItem = true;
+      } else if (isPunctuation(c)) {
+        builder.appendChar(c);
+        inWord = false;
+        afterItem = true;
+      } else {
+        if (c == ' ' && afterItem) {
+          builder.appendChar(' ');
+        }
+        inWord = false;
+        afterItem = false;
+      }
+    }
+  }
+
+  /**
+   * Appends all letters of a word to the builder as a new word. Other characters are skipped.
+   *
+   * @param word    the word to scan
+   * @param builder the builder to append the word to
+   */
+  static void lexWord(CharSequence word, PackedText.Builder builder) {
+    builder.startWord();
+    for (int i = 0; i < word.length(); i++) {
+      char c = word.charAt(i);
+      if (isLetter(c)) {
+        builder.appendLetter(c);
+      }
+    }
+  }
+
+  /**
+   * Checks whether a character matches {@link Letter#REGEX}.
+   *
+   * @param c the character to check
+   * @return {@code true} if the character is an ASCII letter
+   */
+  static boolean isLetter(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  /**
+   * Checks whether a character matches {@link Punctuation#REGEX}.
+   *
+   * @param c the character to check
+   * @return {@code true} if the character is an ASCII punctuation character
+   */
+  static boolean isPunctuation(char c) {
+    return (c >= '!' && c <= '/') || (c >= ':' && c <= '@') || (c >= '[' && c <= '`')
+        || (c >= '{' && c <= '~');
+  }
+
+  /**
+   * Checks whether a character ends a sentence.
+   *
+   * @param c the character to check
+   * @return {@code true} if the character is {@code '.'}, {@code '!'} or {@code '?'}
+   */
+  static boolean isSentenceEnd(char c) {
+    return c == '.' || c == '!' || c == '?';
+  }
+
+  /**
+   * Checks whether a character matches the {@code \s} regular expression class.
+   *
+   * @param c the character to check
+   * @return {@code true} if the character is an ASCII whitespace character
+   */
+  static boolean isWhitespace(char c) {
+    return c == ' ' || (c >= '\t' && c <= '\r');
+  }
+}
@@ -1,8 +1,5 @@
 package dev.mkushnir885.classes;
 
-import java.util.Arrays;
-import java.util.regex.Pattern;
-
 /**
  * Represents a word in a sentence. A word consists of one or more letters and may have a trailing
  * space.
@@ -15,9 +12,19 @@ public class Word extends SentenceItem {
   public final static String REGEX = Letter.REGEX + "+";
 
   /**
-   * Array of {@code Letter} objects representing the letters in the word.
+   * The packed text holding the letters of the word.
+   */
+  private final PackedText packed;
+
+  /**
+   * The index of the first letter of the word in the packed text (inclusive).
    */
-  private final Letter[] letters;
+  private final int from;
+
+  /**
+   * The index of the last letter of the word in the packed text (exclusive).
+   */
+  private final int to;
 
   /**
    * Constructs a {@code Word} instance from a string.
@@ -28,22 +35,27 @@ public class Word extends SentenceItem {
   public Word(String word) {
     super(word);
 
-    letters = Pattern
-        .compile(Letter.REGEX)
-        .matcher(word)
-        .results()
-        .map(res -> new Letter(res.group())).toArray(Letter[]::new);
+    var builder = new PackedText.Builder(word.length());
+    TextLexer.lexWord(word, builder);
+
+    packed = builder.build();
+    from = 0;
+    to = packed.letterCount();
   }
 
   /**
-   * Private constructor used for creating modified copies of a {@code Word}.
+   * Constructs a {@code Word} view over a range of letters of a packed text.
    *
-   * @param letters       the letters of the word
+   * @param packed        the packed text holding the letters
+   * @param from          the index of the first letter (inclusive)
+   * @param to            the index of the last letter (exclusive)
    * @param hasTrailSpace {@code true} if the word has a trailing space; {@code false} otherwise
    */
-  private Word(Letter[] letters, boolean hasTrailSpace) {
+  Word(PackedText packed, int from, int to, boolean hasTrailSpace) {
     super(hasTrailSpace);
-    this.letters = letters;
+    this.packed = packed;
+    this.from = from;
+    this.to = to;
   }
 
   /**
@@ -52,16 +64,16 @@ public class Word extends SentenceItem {
    * @return the length of the word in letters
    */
   public int len() {
-    return letters.length;
+    return to - from;
   }
 
   /**
-   * Returns a copy of the letters in the word.
+   * Returns the letters in the word.
    *
    * @return an array of {@code Letter} objects
    */
   public Letter[] getLetters() {
-    return Arrays.copyOf(letters, letters.length);
+    return packed.getLetters(from, to);
   }
 
   /**
@@ -71,7 +83,7 @@ public class Word extends SentenceItem {
    * @return a new {@code Word} instance with the trimmed letters
    */
   public Word trimStart(int startIdx) {
-    return new Word(Arrays.copyOfRange(letters, startIdx, letters.length), hasTrailSpace);
+    return new Word(packed, from + startIdx, to, hasTrailSpace);
   }
 
   /**
@@ -81,7 +93,7 @@ public class Word extends SentenceItem {
    * @return a new {@code Word} instance with the trimmed letters
    */
   public Word trimEnd(int endIdx) {
-    return new Word(Arrays.copyOfRange(letters, 0, endIdx), false);
+    return new Word(packed, from, from + endIdx, false);
   }
 
   /**
@@ -91,7 +103,7 @@ public class Word extends SentenceItem {
    */
   @Override
   public int strLen() {
-    return letters.length + (hasTrailSpace ? 1 : 0);
+    return len() + (hasTrailSpace ? 1 : 0);
   }
 
   /**
@@ -101,10 +113,6 @@ public class Word extends SentenceItem {
    */
   @Override
   public String toString() {
-    var sb = new StringBuilder();
-    for (var letter : letters) {
-      sb.append(letter);
-    }
-    return sb.append(hasTrailSpace ? " " : "").toString();
+    return packed.lettersToString(from, to) + (hasTrailSpace ? " " : "");
   }
 }
@@ -1,9 +1,14 @@
 package dev.mkushnir885.bouquet;
 
-import java.util.Arrays;
-import java.util.Comparator;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
 
 import dev.mkushnir885.flowers.Flower;
+import dev.mkushnir885.flowers.FlowerLengthIndex;
+import dev.mkushnir885.flowers.FlowerSelection;
 
 /**
  * Represents a bouquet of flowers with an optional cost of accessories.
@@ -11,9 +16,26 @@ import dev.mkushnir885.flowers.Flower;
 public class Bouquet {
 
   /**
-   * An array of {@link Flower} objects that make up the bouquet.
+   * The number of characters collected before they are passed to the writer in
+   * {@link #writeTo(Writer)}.
    */
-  private final Flower[] flowers;
+  private static final int WRITE_BUFFER_SIZE = 1 << 13;
+
+  /**
+   * The end of the string representation of a bouquet.
+   */
+  private static final String FOOTER = "\t]\n}";
+
+  /**
+   * An array of {@link Flower} objects that make up the bouquet. Only the first
+   * {@link #flowerCount} elements belong to the bouquet.
+   */
+  Flower[] flowers;
+
+  /**
+   * The number of flowers in the bouquet.
+   */
+  int flowerCount;
 
   /**
    * The cost of accessories included with the bouquet.
@@ -37,9 +59,39 @@ public class Bouquet {
     }
 
     this.flowers = flowers;
+    this.flowerCount = flowers.length;
     this.accessoriesCost = accessoriesCost;
   }
 
+  /**
+   * Retrieves the number of flowers in the bouquet.
+   *
+   * @return the number of flowers
+   */
+  public int getFlowerCount() {
+    return flowerCount;
+  }
+
+  /**
+   * Retrieves the flower at the specified position in the bouquet.
+   *
+   * @param index the index of the flower
+   * @return the flower at the specified index
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public Flower getFlower(int index) {
+    return flowers[Objects.checkIndex(index, flowerCount)];
+  }
+
+  /**
+   * Retrieves the cost of accessories included with the bouquet.
+   *
+   * @return the cost of accessories
+   */
+  public double getAccessoriesCost() {
+    return accessoriesCost;
+  }
+
   /**
    * Calculates the total cost of the bouquet, including the cost of accessories and the price of
    * each flower in the bouquet.
@@ -48,23 +100,166 @@ public class Bouquet {
    */
   public double getCost() {
     double cost = accessoriesCost;
-    for (var flower : flowers) {
-      cost += flower.getPrice();
+    for (int i = 0; i < flowerCount; i++) {
+      cost += flowers[i].getPrice();
     }
     return cost;
   }
 
   /**
    * Sorts the flowers in the bouquet by their freshness level in ascending order. Freshness is
-   * represented as a percentage where 100% is the freshest.
+   * represented as a percentage where 100% is the freshest. Flowers with the same freshness keep
+   * their order.
+   * <p>
+   * The freshness of each flower is read only once; the flowers are then sorted by these keys
+   * without further calls to the flowers.
    */
   public void sortFlowersByFreshnessLevel() {
-    Arrays.sort(flowers, Comparator.comparingDouble(Flower::getFreshnessLevel));
+    sortFlowersByFreshnessLevel(1);
+  }
+
+  /**
+   * Sorts the flowers in the bouquet by their freshness level in ascending order, as
+   * {@link #sortFlowersByFreshnessLevel()} does, with the specified number of threads.
+   *
+   * @param parallelism the number of threads to sort with
+   * @throws IllegalArgumentException if the parallelism is not positive
+   */
+  public void sortFlowersByFreshnessLevel(int parallelism) {
+    sortFlowers(Flower::getFreshnessLevel, parallelism);
+  }
+
+  /**
+   * Sorts the flowers in the bouquet by their price in ascending order. Flowers with the same
+   * price keep their order.
+   */
+  public void sortFlowersByPrice() {
+    sortFlowersByPrice(1);
+  }
+
+  /**
+   * Sorts the flowers in the bouquet by their price in ascending order, as
+   * {@link #sortFlowersByPrice()} does, with the specified number of threads.
+   *
+   * @param parallelism the number of threads to sort with
+   * @throws IllegalArgumentException if the parallelism is not positive
+   */
+  public void sortFlowersByPrice(int parallelism) {
+    sortFlowers(Flower::getPrice, parallelism);
+  }
+
+  /**
+   * Sorts the flowers in the bouquet by their length in ascending order. Flowers with the same
+   * length keep their order.
+   */
+  public void sortFlowersByLength() {
+    sortFlowersByLength(1);
+  }
+
+  /**
+   * Sorts the flowers in the bouquet by their length in ascending order, as
+   * {@link #sortFlowersByLength()} does, with the specified number of threads.
+   *
+   * @param parallelism the number of threads to sort with
+   * @throws IllegalArgumentException if the parallelism is not positive
+   */
+  public void sortFlowersByLength(int parallelism) {
+    sortFlowers(Flower::getLength, parallelism);
+  }
+
+  /**
+   * Returns the freshest flowers of the bouquet, without sorting it.
+   * <p>
+   * Only the selected flowers are put in order: a few of them are selected from the bouquet in a
+   * single pass over it, and many by quickselect, so the bouquet is not sorted as a whole and the
+   * order of its flowers does not change.
+   *
+   * @param k the number of flowers to return
+   * @return at most {@code k} flowers, from the most to the least fresh; of flowers equally fresh,
+   * those earlier in the bouquet come first
+   * @throws IllegalArgumentException if {@code k} is negative
+   */
+  public Flower[] getFreshestFlowers(int k) {
+    return toArray(FlowerSelection.top(flowers, flowerCount, k, Flower::getFreshnessLevel));
+  }
+
+  /**
+   * Returns the least fresh flowers of the bouquet, without sorting it, as
+   * {@link #getFreshestFlowers(int)} does.
+   *
+   * @param k the number of flowers to return
+   * @return at most {@code k} flowers, from the least to the most fresh
+   * @throws IllegalArgumentException if {@code k} is negative
+   */
+  public Flower[] getStalestFlowers(int k) {
+    return toArray(FlowerSelection.bottom(flowers, flowerCount, k, Flower::getFreshnessLevel));
+  }
+
+  /**
+   * Returns the cheapest flowers of the bouquet, without sorting it, as
+   * {@link #getFreshestFlowers(int)} does.
+   *
+   * @param k the number of flowers to return
+   * @return at most {@code k} flowers, from the cheapest to the most expensive
+   * @throws IllegalArgumentException if {@code k} is negative
+   */
+  public Flower[] getCheapestFlowers(int k) {
+    return toArray(FlowerSelection.bottom(flowers, flowerCount, k, Flower::getPrice));
+  }
+
+  /**
+   * Returns the most expensive flowers of the bouquet, without sorting it, as
+   * {@link #getFreshestFlowers(int)} does.
+   *
+   * @param k the number of flowers to return
+   * @return at most {@code k} flowers, from the most expensive to the cheapest
+   * @throws IllegalArgumentException if {@code k} is negative
+   */
+  public Flower[] getMostExpensiveFlowers(int k) {
+    return toArray(FlowerSelection.top(flowers, flowerCount, k, Flower::getPrice));
+  }
+
+  /**
+   * Returns the shortest flowers of the bouquet, without sorting it, as
+   * {@link #getFreshestFlowers(int)} does.
+   *
+   * @param k the number of flowers to return
+   * @return at most {@code k} flowers, from the shortest to the longest
+   * @throws IllegalArgumentException if {@code k} is negative
+   */
+  public Flower[] getShortestFlowers(int k) {
+    return toArray(FlowerSelection.bottom(flowers, flowerCount, k, Flower::getLength));
+  }
+
+  /**
+   * Returns the longest flowers of the bouquet, without sorting it, as
+   * {@link #getFreshestFlowers(int)} does.
+   *
+   * @param k the number of flowers to return
+   * @return at most {@code k} flowers, from the longest to the shortest
+   * @throws IllegalArgumentException if {@code k} is negative
+   */
+  public Flower[] getLongestFlowers(int k) {
+    return toArray(FlowerSelection.top(flowers, flowerCount, k, Flower::getLength));
+  }
+
+  private static Flower[] toArray(List<Flower> flowers) {
+    return flowers.toArray(new Flower[0]);
+  }
+
+  private void sortFlowers(ToDoubleFunction<Flower> property, int parallelism) {
+    FlowerSort.sort(flowers, flowerCount, property, parallelism);
+    flowersChanged();
   }
 
   /**
    * Finds the index of the first flower in the bouquet whose length falls within the specified
    * range (inclusive).
+   * <p>
+   * The flowers are scanned on every call, since the flowers array of a bouquet may be changed
+   * through other references to it. For many queries over the same flowers, build a
+   * {@link #getLengthIndex() length index} once and query it instead, or use a
+   * {@link MutableBouquet}, which does so by itself.
    *
    * @param min the minimum length of the flower in the range (inclusive)
    * @param max the maximum length of the flower in the range (inclusive)
@@ -74,11 +269,8 @@ public class Bouquet {
    *                                  {@code max}
    */
   public int indexOfFlowerByLength(float min, float max) {
-    if (min < 0 || min > max) {
-      throw new IllegalArgumentException("invalid flower length range");
-    }
-
-    for (int i = 0; i < flowers.length; i++) {
+    checkLengthRange(min, max);
+    for (int i = 0; i < flowerCount; i++) {
       float length = flowers[i].getLength();
       if (length >= min && length <= max) {
         return i;
@@ -87,6 +279,70 @@ public class Bouquet {
     return -1;
   }
 
+  /**
+   * Counts the flowers in the bouquet whose length falls within the specified range (inclusive),
+   * scanning the flowers as {@link #indexOfFlowerByLength(float, float)} does.
+   *
+   * @param min the minimum length of the flower in the range (inclusive)
+   * @param max the maximum length of the flower in the range (inclusive)
+   * @return the number of flowers in the range
+   * @throws IllegalArgumentException if {@code min} is negative or {@code min} is greater than
+   *                                  {@code max}
+   */
+  public int countFlowersByLength(float min, float max) {
+    checkLengthRange(min, max);
+    int count = 0;
+    for (int i = 0; i < flowerCount; i++) {
+      float length = flowers[i].getLength();
+      if (length >= min && length <= max) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Finds the indices of all flowers in the bouquet whose length falls within the specified range
+   * (inclusive), using the length index returned by {@link #getLengthIndex()}.
+   *
+   * @param min the minimum length of the flower in the range (inclusive)
+   * @param max the maximum length of the flower in the range (inclusive)
+   * @return the indices of the matching flowers, in ascending order of length and, for equal
+   * lengths, of index
+   * @throws IllegalArgumentException if {@code min} is negative or {@code min} is greater than
+   *                                  {@code max}
+   */
+  public int[] indicesOfFlowersByLength(float min, float max) {
+    return getLengthIndex().indicesOf(min, max);
+  }
+
+  /**
+   * Builds an index of the current flowers of the bouquet by length, which answers length range
+   * queries in {@code O(log n)} time.
+   * <p>
+   * The index is a snapshot: a new one is built on every call, and it does not follow later
+   * changes to the flowers. Callers making many queries should keep the index for as long as they
+   * know the flowers are unchanged.
+   *
+   * @return a length index of the flowers
+   */
+  public FlowerLengthIndex getLengthIndex() {
+    return new FlowerLengthIndex(flowers, flowerCount);
+  }
+
+  /**
+   * Called after the bouquet itself has changed its flowers or their order, so that subclasses can
+   * discard what they derived from the flowers.
+   */
+  void flowersChanged() {
+  }
+
+  private static void checkLengthRange(float min, float max) {
+    if (min < 0 || min > max) {
+      throw new IllegalArgumentException("invalid flower length range");
+    }
+  }
+
   /**
    * Returns a string representation of the bouquet, including the total cost, accessories cost, and
    * details of all the flowers in the bouquet.
@@ -95,13 +351,41 @@ public class Bouquet {
    */
   @Override
   public String toString() {
-    var sb = new StringBuilder(
-        String.format("Bouquet{\n\ttotal cost: %6.2f$ (accessories cost: %6.2f$)\n\tflowers: [\n",
-            getCost(),
-            accessoriesCost));
-    for (var flower : flowers) {
-      sb.append("\t\t").append(flower).append("\n");
+    var sb = appendHeader(new StringBuilder(64 + 128 * flowerCount));
+    for (int i = 0; i < flowerCount; i++) {
+      appendFlower(sb, flowers[i]);
+    }
+    return sb.append(FOOTER).toString();
+  }
+
+  /**
+   * Writes the string representation of the bouquet, as returned by {@link #toString()}, to a
+   * writer. The flowers are appended to a reusable buffer, which is written out whenever it fills,
+   * so neither the whole string nor a string per flower is created.
+   *
+   * @param out the writer to write to
+   * @throws IOException if the writer fails
+   */
+  public void writeTo(Writer out) throws IOException {
+    var sb = appendHeader(new StringBuilder(WRITE_BUFFER_SIZE + 256));
+    for (int i = 0; i < flowerCount; i++) {
+      appendFlower(sb, flowers[i]);
+      if (sb.length() >= WRITE_BUFFER_SIZE) {
+        out.append(sb);
+        sb.setLength(0);
+      }
     }
-    return sb.append("\t]\n}").toString();
+    out.append(sb.append(FOOTER));
+  }
+
+  private StringBuilder appendHeader(StringBuilder sb) {
+    return sb.append(String.format(
+        "Bouquet{\n\ttotal cost: %6.2f$ (accessories cost: %6.2f$)\n\tflowers: [\n",
+        getCost(),
+        accessoriesCost));
+  }
+
+  private static void appendFlower(StringBuilder sb, Flower flower) {
+    flower.appendTo(sb.append("\t\t")).append('\n');
   }
 }
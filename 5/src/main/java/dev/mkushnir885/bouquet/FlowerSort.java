@@ -0,0 +1,281 @@
+package dev.mkushnir885.bouquet;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ToDoubleFunction;
+
+import dev.mkushnir885.flowers.Flower;
+
+/**
+ * Sorts flowers by a numeric property without calling the property in every comparison.
+ * <p>
+ * The property of each flower is read once into a {@code long[]} of sort keys, in which the order
+ * of signed values is the order of {@link Double#compare(double, double)}. The keys are merge
+ * sorted together with the original positions of their flowers, and the flowers are then moved to
+ * their sorted positions in a single pass. The sort is stable, like the sort of
+ * {@link java.util.Arrays#sort(Object[], java.util.Comparator)} it replaces.
+ * </p>
+ * <p>
+ * The parallel sort sorts halves of the keys in parallel and merges them in parallel as well, by
+ * splitting both halves at a common key, so no single merge of the whole array is left to one
+ * thread.
+ * </p>
+ */
+final class FlowerSort {
+
+  /**
+   * The smallest number of flowers sorted in parallel. Smaller arrays are sorted faster by a single
+   * thread.
+   */
+  private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+  /**
+   * The number of chunks per thread in the parallel sort, so that threads finishing early can take
+   * more work.
+   */
+  private static final int CHUNKS_PER_THREAD = 4;
+
+  /**
+   * The smallest number of keys sorted or merged by a separate task.
+   */
+  private static final int MIN_CHUNK_SIZE = 1 << 13;
+
+  /**
+   * The largest range of keys sorted by insertion sort rather than by merging.
+   */
+  private static final int INSERTION_SORT_SIZE = 24;
+
+  private final long[] keys;
+  private final int[] indices;
+  private final long[] keyBuffer;
+  private final int[] indexBuffer;
+
+  private FlowerSort(long[] keys, int[] indices) {
+    this.keys = keys;
+    this.indices = indices;
+    keyBuffer = new long[keys.length];
+    indexBuffer = new int[keys.length];
+  }
+
+  /**
+   * Sorts the first flowers of an array by a property in ascending order.
+   *
+   * @param flowers     the flowers to sort
+   * @param count       the number of flowers to sort, from the start of the array
+   * @param property    the property to sort by
+   * @param parallelism the number of threads to sort with
+   * @throws IllegalArgumentException if the parallelism is not positive
+   */
+  static void sort(Flower[] flowers, int count, ToDoubleFunction<Flower> property,
+      int parallelism) {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("parallelism must be positive");
+    }
+    if (count < 2) {
+      return;
+    }
+
+    var keys = new long[count];
+    var indices = new int[count];
+    for (int i = 0; i < count; i++) {
+      keys[i] = sortKey(property.applyAsDouble(flowers[i]));
+      indices[i] = i;
+    }
+
+    var sort = new FlowerSort(keys, indices);
+    if (parallelism == 1 || count < PARALLEL_THRESHOLD) {
+      sort.mergeSort(0, count);
+    } else {
+      int chunkSize = Math.max(count / (parallelism * CHUNKS_PER_THREAD), MIN_CHUNK_SIZE);
+      try (var pool = new ForkJoinPool(parallelism)) {
+        pool.invoke(sort.new SortTask(0, count, chunkSize));
+      }
+    }
+
+    var unsorted = new Flower[count];
+    System.arraycopy(flowers, 0, unsorted, 0, count);
+    for (int i = 0; i < count; i++) {
+      flowers[i] = unsorted[indices[i]];
+    }
+  }
+
+  /**
+   * Converts a value into a key whose order as a signed {@code long} is the order of
+   * {@link Double#compare(double, double)}: negative values have all bits but the sign flipped, so
+   * that they sort in reverse, and {@code NaN} comes last.
+   *
+   * @param value the value to convert
+   * @return the sort key
+   */
+  private static long sortKey(double value) {
+    long bits = Double.doubleToLongBits(value);
+    return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+  }
+
+  /**
+   * Sorts a range of keys, together with their indices, in ascending order.
+   *
+   * @param from the first index of the range (inclusive)
+   * @param to   the last index of the range (exclusive)
+   */
+  private void mergeSort(int from, int to) {
+    if (to - from <= INSERTION_SORT_SIZE) {
+      insertionSort(from, to);
+      return;
+    }
+
+    int middle = (from + to) >>> 1;
+    mergeSort(from, middle);
+    mergeSort(middle, to);
+    if (keys[middle - 1] > keys[middle]) {
+      copyToBuffer(from, to);
+      merge(from, middle, middle, to, from);
+    }
+  }
+
+  private void insertionSort(int from, int to) {
+    for (int i = from + 1; i < to; i++) {
+      long key = keys[i];
+      int index = indices[i];
+      int j = i - 1;
+      for (; j >= from && keys[j] > key; j--) {
+        keys[j + 1] = keys[j];
+        indices[j + 1] = indices[j];
+      }
+      keys[j + 1] = key;
+      indices[j + 1] = index;
+    }
+  }
+
+  private void copyToBuffer(int from, int to) {
+    System.arraycopy(keys, from, keyBuffer, from, to - from);
+    System.arraycopy(indices, from, indexBuffer, from, to - from);
+  }
+
+  /**
+   * Merges two sorted ranges of the buffer into the keys and indices. Of equal keys, those of the
+   * left range are taken first.
+   *
+   * @param left     the first index of the left range (inclusive)
+   * @param leftEnd  the last index of the left range (exclusive)
+   * @param right    the first index of the right range (inclusive)
+   * @param rightEnd the last index of the right range (exclusive)
+   * @param to       the first index of the merged range
+   */
+  private void merge(int left, int leftEnd, int right, int rightEnd, int to) {
+    while (left < leftEnd && right < rightEnd) {
+      if (keyBuffer[left] <= keyBuffer[right]) {
+        keys[to] = keyBuffer[left];
+        indices[to++] = indexBuffer[left++];
+      } else {
+        keys[to] = keyBuffer[right];
+        indices[to++] = indexBuffer[right++];
+      }
+    }
+    System.arraycopy(keyBuffer, left, keys, to, leftEnd - left);
+    System.arraycopy(indexBuffer, left, indices, to, leftEnd - left);
+    to += leftEnd - left;
+    System.arraycopy(keyBuffer, right, keys, to, rightEnd - right);
+    System.arraycopy(indexBuffer, right, indices, to, rightEnd - right);
+  }
+
+  /**
+   * Returns the first index in a sorted range of the buffer whose key is not less than, or, if
+   * {@code after} is set, greater than the specified key.
+   *
+   * @param from  the first index of the range (inclusive)
+   * @param to    the last index of the range (exclusive)
+   * @param key   the key to search for
+   * @param after {@code true} to skip the keys equal to the specified key
+   * @return the index of the first key in order after the specified one
+   */
+  private int search(int from, int to, long key, boolean after) {
+    while (from < to) {
+      int middle = (from + to) >>> 1;
+      if (keyBuffer[middle] < key || (after && keyBuffer[middle] == key)) {
+        from = middle + 1;
+      } else {
+        to = middle;
+      }
+    }
+    return from;
+  }
+
+  /**
+   * A task sorting a range of keys, sorting its halves in parallel and then merging them.
+   */
+  private final class SortTask extends RecursiveAction {
+
+    private final int from;
+    private final int to;
+    private final int chunkSize;
+
+    SortTask(int from, int to, int chunkSize) {
+      this.from = from;
+      this.to = to;
+      this.chunkSize = chunkSize;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= chunkSize) {
+        mergeSort(from, to);
+        return;
+      }
+
+      int middle = (from + to) >>> 1;
+      invokeAll(new SortTask(from, middle, chunkSize), new SortTask(middle, to, chunkSize));
+      if (keys[middle - 1] > keys[middle]) {
+        copyToBuffer(from, to);
+        new MergeTask(from, middle, middle, to, from, chunkSize).compute();
+      }
+    }
+  }
+
+  /**
+   * A task merging two sorted ranges of the buffer. Large merges are split at the middle key of
+   * the longer range: the keys before it in both ranges and the keys after it are merged by two
+   * tasks in parallel, into adjacent parts of the result.
+   */
+  private final class MergeTask extends RecursiveAction {
+
+    private final int left;
+    private final int leftEnd;
+    private final int right;
+    private final int rightEnd;
+    private final int to;
+    private final int chunkSize;
+
+    MergeTask(int left, int leftEnd, int right, int rightEnd, int to, int chunkSize) {
+      this.left = left;
+      this.leftEnd = leftEnd;
+      this.right = right;
+      this.rightEnd = rightEnd;
+      this.to = to;
+      this.chunkSize = chunkSize;
+    }
+
+    @Override
+    protected void compute() {
+      if ((leftEnd - left) + (rightEnd - right) <= chunkSize) {
+        merge(left, leftEnd, right, rightEnd, to);
+        return;
+      }
+
+      // Keys equal to the splitting key stay on the side that keeps the left range first
+      int leftSplit;
+      int rightSplit;
+      if (leftEnd - left >= rightEnd - right) {
+        leftSplit = (left + leftEnd) >>> 1;
+        rightSplit = search(right, rightEnd, keyBuffer[leftSplit], false);
+      } else {
+        rightSplit = (right + rightEnd) >>> 1;
+        leftSplit = search(left, leftEnd, keyBuffer[rightSplit], true);
+      }
+
+      int split = to + (leftSplit - left) + (rightSplit - right);
+      invokeAll(new MergeTask(left, leftSplit, right, rightSplit, to, chunkSize),
+          new MergeTask(leftSplit, leftEnd, rightSplit, rightEnd, split, chunkSize));
+    }
+  }
+}
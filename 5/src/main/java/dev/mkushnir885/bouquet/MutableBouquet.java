@@ -0,0 +1,239 @@
+package dev.mkushnir885.bouquet;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import dev.mkushnir885.flowers.Flower;
+import dev.mkushnir885.flowers.FlowerLengthIndex;
+
+/**
+ * Represents a bouquet whose flowers can be added, removed and replaced, with its cost kept up to
+ * date as the flowers change.
+ * <p>
+ * The total price of the flowers is maintained as a running sum, so {@link #getCost()} takes
+ * constant time instead of summing all prices on every call. Every change adds or subtracts prices
+ * with compensated summation (the Kahan-Babuska variant of Kahan's algorithm), which carries the
+ * rounding error of the running sum separately, so the cost does not drift however many changes
+ * are made.
+ * </p>
+ * <p>
+ * Unlike {@link Bouquet}, a mutable bouquet keeps its own copy of the flowers array. Since all
+ * changes to its flowers are made through its own methods, it also keeps its length index between
+ * queries and discards it only when the flowers change.
+ * </p>
+ */
+public class MutableBouquet extends Bouquet {
+
+  /**
+   * The number of length range queries answered by scanning the flowers before a length index is
+   * built. Building the index costs about as much as this many scans.
+   */
+  private static final int LENGTH_INDEX_THRESHOLD = 16;
+
+  /**
+   * The running sum of the prices of the flowers, without its rounding error.
+   */
+  private double priceSum;
+
+  /**
+   * The accumulated rounding error of {@link #priceSum}, added back when the cost is read.
+   */
+  private double priceCompensation;
+
+  /**
+   * The index of the flowers by length, or {@code null} if it has not been built since the flowers
+   * last changed.
+   */
+  private FlowerLengthIndex lengthIndex;
+
+  /**
+   * The number of length range queries answered by scanning since the flowers last changed.
+   */
+  private int lengthScans;
+
+  /**
+   * Constructs a new empty {@code MutableBouquet} with the specified accessories cost.
+   *
+   * @param accessoriesCost the cost of accessories included with the bouquet
+   * @throws IllegalArgumentException if the accessories cost is negative
+   */
+  public MutableBouquet(double accessoriesCost) {
+    this(new Flower[0], accessoriesCost);
+  }
+
+  /**
+   * Constructs a new {@code MutableBouquet} with a copy of the specified flowers and the specified
+   * accessories cost.
+   *
+   * @param flowers         an array of {@link Flower} objects that make up the bouquet
+   * @param accessoriesCost the cost of accessories included with the bouquet
+   * @throws IllegalArgumentException if the flowers array is {@code null} or contains
+   *                                  {@code null}, or the accessories cost is negative
+   */
+  public MutableBouquet(Flower[] flowers, double accessoriesCost) {
+    super(copyOf(flowers), accessoriesCost);
+    for (int i = 0; i < flowerCount; i++) {
+      addPrice(this.flowers[i].getPrice());
+    }
+  }
+
+  /**
+   * Returns the total cost of the bouquet, including the cost of accessories and the price of each
+   * flower in the bouquet, in constant time.
+   *
+   * @return the total cost of the bouquet
+   */
+  @Override
+  public double getCost() {
+    return getAccessoriesCost() + (priceSum + priceCompensation);
+  }
+
+  /**
+   * Adds a flower to the end of the bouquet.
+   *
+   * @param flower the flower to add
+   * @throws IllegalArgumentException if the flower is {@code null}
+   */
+  public void addFlower(Flower flower) {
+    checkFlower(flower);
+    if (flowerCount == flowers.length) {
+      flowers = Arrays.copyOf(flowers, Math.max(16, flowerCount * 2));
+    }
+    flowers[flowerCount++] = flower;
+    addPrice(flower.getPrice());
+    flowersChanged();
+  }
+
+  /**
+   * Removes the flower at the specified position in the bouquet. The flowers after it are shifted
+   * one position to the left.
+   *
+   * @param index the index of the flower to remove
+   * @return the removed flower
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public Flower removeFlower(int index) {
+    var removed = flowers[Objects.checkIndex(index, flowerCount)];
+    System.arraycopy(flowers, index + 1, flowers, index, flowerCount - index - 1);
+    flowers[--flowerCount] = null;
+
+    if (flowerCount == 0) {
+      priceSum = 0;
+      priceCompensation = 0;
+    } else {
+      addPrice(-removed.getPrice());
+    }
+    flowersChanged();
+    return removed;
+  }
+
+  /**
+   * Replaces the flower at the specified position in the bouquet.
+   *
+   * @param index  the index of the flower to replace
+   * @param flower the new flower
+   * @return the replaced flower
+   * @throws IndexOutOfBoundsException if the index is out of range
+   * @throws IllegalArgumentException  if the flower is {@code null}
+   */
+  public Flower replaceFlower(int index, Flower flower) {
+    var replaced = flowers[Objects.checkIndex(index, flowerCount)];
+    checkFlower(flower);
+    flowers[index] = flower;
+    addPrice(-replaced.getPrice());
+    addPrice(flower.getPrice());
+    flowersChanged();
+    return replaced;
+  }
+
+  /**
+   * Finds the index of the first flower in the bouquet whose length falls within the specified
+   * range (inclusive).
+   * <p>
+   * The first queries after the flowers change scan the flowers. Once more queries are made, the
+   * length index of the bouquet is built and answers them in {@code O(log n)} time.
+   *
+   * @param min the minimum length of the flower in the range (inclusive)
+   * @param max the maximum length of the flower in the range (inclusive)
+   * @return the index of the flower that matches the specified range, or {@code -1} if no such
+   * flower exists
+   * @throws IllegalArgumentException if {@code min} is negative or {@code min} is greater than
+   *                                  {@code max}
+   */
+  @Override
+  public int indexOfFlowerByLength(float min, float max) {
+    if (lengthIndex == null && ++lengthScans <= LENGTH_INDEX_THRESHOLD) {
+      return super.indexOfFlowerByLength(min, max);
+    }
+    return getLengthIndex().indexOf(min, max);
+  }
+
+  /**
+   * Counts the flowers in the bouquet whose length falls within the specified range (inclusive),
+   * using the length index of the bouquet.
+   *
+   * @param min the minimum length of the flower in the range (inclusive)
+   * @param max the maximum length of the flower in the range (inclusive)
+   * @return the number of flowers in the range
+   * @throws IllegalArgumentException if {@code min} is negative or {@code min} is greater than
+   *                                  {@code max}
+   */
+  @Override
+  public int countFlowersByLength(float min, float max) {
+    return getLengthIndex().count(min, max);
+  }
+
+  /**
+   * Returns the index of the flowers of the bouquet by length, building it only if the flowers
+   * have changed since it was last built.
+   *
+   * @return the length index of the flowers
+   */
+  @Override
+  public FlowerLengthIndex getLengthIndex() {
+    if (lengthIndex == null) {
+      lengthIndex = super.getLengthIndex();
+    }
+    return lengthIndex;
+  }
+
+  @Override
+  void flowersChanged() {
+    lengthIndex = null;
+    lengthScans = 0;
+  }
+
+  /**
+   * Adds a price to the running sum, keeping the rounding error of the addition in the
+   * compensation. Of the sum and the price, the low-order bits of the smaller one are those lost,
+   * so they are recovered from whichever is smaller in magnitude.
+   *
+   * @param price the price to add, negative to subtract a price
+   */
+  private void addPrice(double price) {
+    double sum = priceSum + price;
+    if (Math.abs(priceSum) >= Math.abs(price)) {
+      priceCompensation += (priceSum - sum) + price;
+    } else {
+      priceCompensation += (price - sum) + priceSum;
+    }
+    priceSum = sum;
+  }
+
+  private static Flower[] copyOf(Flower[] flowers) {
+    if (flowers == null) {
+      throw new IllegalArgumentException("flowers array cannot be null");
+    }
+    var copy = flowers.clone();
+    for (var flower : copy) {
+      checkFlower(flower);
+    }
+    return copy;
+  }
+
+  private static void checkFlower(Flower flower) {
+    if (flower == null) {
+      throw new IllegalArgumentException("flower cannot be null");
+    }
+  }
+}
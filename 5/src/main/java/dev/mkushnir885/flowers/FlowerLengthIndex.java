@@ -0,0 +1,247 @@
+package dev.mkushnir885.flowers;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An index of flowers by length, for answering many length range queries over the same flowers.
+ * <p>
+ * The lengths in millimeters are sorted once, together with the positions of their flowers, so a
+ * range of lengths is found by two binary searches. A range given in centimeters is converted once
+ * into whole millimeters, with the same comparison as {@link Flower#getLength()} gives, so the
+ * lengths are not converted to {@code float} for each flower.
+ * </p>
+ * <p>
+ * To find the matching flower with the lowest position, the positions are also kept in a segment
+ * tree holding the lowest position of each range of sorted lengths, so that search takes
+ * {@code O(log n)} time however many flowers match.
+ * </p>
+ * <p>
+ * The index is a snapshot: it does not change when the flowers it was built from are reordered or
+ * replaced.
+ * </p>
+ */
+public final class FlowerLengthIndex {
+
+  /**
+   * The lengths of the flowers in millimeters, in ascending order.
+   */
+  private final int[] lengths;
+
+  /**
+   * The segment tree of positions. The leaf {@code tree[n + i]} holds the position of the flower
+   * with the {@code i}-th smallest length, and each inner node {@code tree[k]} holds the lower of
+   * {@code tree[2k]} and {@code tree[2k + 1]}.
+   */
+  private final int[] tree;
+
+  /**
+   * Constructs an index of all the specified flowers.
+   *
+   * @param flowers the flowers to index
+   * @throws IllegalArgumentException if the array is {@code null} or contains {@code null}
+   */
+  public FlowerLengthIndex(Flower[] flowers) {
+    this(flowers, (flowers != null) ? flowers.length : 0);
+  }
+
+  /**
+   * Constructs an index of the first flowers of the specified array.
+   *
+   * @param flowers the flowers to index
+   * @param count   the number of flowers to index, from the start of the array
+   * @throws IllegalArgumentException  if the array is {@code null} or its first {@code count}
+   *                                   elements contain {@code null}
+   * @throws IndexOutOfBoundsException if the count is negative or exceeds the array length
+   */
+  public FlowerLengthIndex(Flower[] flowers, int count) {
+    if (flowers == null) {
+      throw new IllegalArgumentException("flowers array cannot be null");
+    }
+    Objects.checkFromToIndex(0, count, flowers.length);
+
+    // A length and a position fit into one long, which sorts by length and then by position
+    var keys = new long[count];
+    for (int i = 0; i < count; i++) {
+      if (flowers[i] == null) {
+        throw new IllegalArgumentException("flower cannot be null");
+      }
+      keys[i] = (long) flowers[i].lengthInMillimeters() << 32 | i;
+    }
+    Arrays.sort(keys);
+
+    lengths = new int[count];
+    tree = new int[2 * count];
+    for (int i = 0; i < count; i++) {
+      lengths[i] = (int) (keys[i] >>> 32);
+      tree[count + i] = (int) keys[i];
+    }
+    for (int k = count - 1; k > 0; k--) {
+      tree[k] = Math.min(tree[2 * k], tree[2 * k + 1]);
+    }
+  }
+
+  /**
+   * Returns the number of indexed flowers.
+   *
+   * @return the number of flowers
+   */
+  public int size() {
+    return lengths.length;
+  }
+
+  /**
+   * Finds the position of the first flower whose length falls within the specified range
+   * (inclusive), as {@code Bouquet.indexOfFlowerByLength} does, in {@code O(log n)} time.
+   *
+   * @param min the minimum length in centimeters (inclusive)
+   * @param max the maximum length in centimeters (inclusive)
+   * @return the lowest position of a matching flower, or {@code -1} if no flower matches
+   * @throws IllegalArgumentException if {@code min} is negative or {@code min} is greater than
+   *                                  {@code max}
+   */
+  public int indexOf(float min, float max) {
+    int from = lowerBound(min, max);
+    int to = upperBound(max);
+    if (from >= to) {
+      return -1;
+    }
+
+    int n = lengths.length;
+    int lowest = Integer.MAX_VALUE;
+    for (int left = from + n, right = to + n; left < right; left >>>= 1, right >>>= 1) {
+      if ((left & 1) != 0) {
+        lowest = Math.min(lowest, tree[left++]);
+      }
+      if ((right & 1) != 0) {
+        lowest = Math.min(lowest, tree[--right]);
+      }
+    }
+    return lowest;
+  }
+
+  /**
+   * Counts the flowers whose length falls within the specified range (inclusive) in
+   * {@code O(log n)} time.
+   *
+   * @param min the minimum length in centimeters (inclusive)
+   * @param max the maximum length in centimeters (inclusive)
+   * @return the number of matching flowers
+   * @throws IllegalArgumentException if {@code min} is negative or {@code min} is greater than
+   *                                  {@code max}
+   */
+  public int count(float min, float max) {
+    return Math.max(upperBound(max) - lowerBound(min, max), 0);
+  }
+
+  /**
+   * Finds the positions of all flowers whose length falls within the specified range (inclusive)
+   * in {@code O(log n + k)} time, where {@code k} is the number of matching flowers.
+   *
+   * @param min the minimum length in centimeters (inclusive)
+   * @param max the maximum length in centimeters (inclusive)
+   * @return the positions of the matching flowers, in ascending order of length and, for equal
+   * lengths, of position
+   * @throws IllegalArgumentException if {@code min} is negative or {@code min} is greater than
+   *                                  {@code max}
+   */
+  public int[] indicesOf(float min, float max) {
+    int from = lowerBound(min, max);
+    int to = upperBound(max);
+    if (from >= to) {
+      return new int[0];
+    }
+    int n = lengths.length;
+    return Arrays.copyOfRange(tree, n + from, n + to);
+  }
+
+  /**
+   * Validates a range and returns the first sorted position whose length is not below it.
+   *
+   * @param min the minimum length in centimeters (inclusive)
+   * @param max the maximum length in centimeters (inclusive)
+   * @return the first sorted position in the range
+   * @throws IllegalArgumentException if the range is invalid
+   */
+  private int lowerBound(float min, float max) {
+    if (min < 0 || min > max) {
+      throw new IllegalArgumentException("invalid flower length range");
+    }
+    long mm = firstMillimeters(min);
+    return (mm > Integer.MAX_VALUE) ? lengths.length : search((int) mm);
+  }
+
+  /**
+   * Returns the first sorted position whose length is above the specified one.
+   *
+   * @param max the maximum length in centimeters (inclusive)
+   * @return the sorted position after the range
+   */
+  private int upperBound(float max) {
+    long mm = lastMillimeters(max);
+    return (mm < 0) ? 0 : (mm == Integer.MAX_VALUE) ? lengths.length : search((int) mm + 1);
+  }
+
+  /**
+   * Returns the first sorted position whose length is not less than the specified one.
+   *
+   * @param mm the length in millimeters
+   * @return the first position with a length of at least {@code mm}
+   */
+  private int search(int mm) {
+    int low = 0;
+    int high = lengths.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (lengths[mid] < mm) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Returns the smallest length in millimeters which, converted to centimeters as by
+   * {@link Flower#getLength()}, is not less than the specified length.
+   *
+   * @param min the length in centimeters, not negative
+   * @return the smallest matching length in millimeters, or a value above
+   * {@link Integer#MAX_VALUE} if there is none
+   */
+  static long firstMillimeters(float min) {
+    if (Float.isNaN(min)) {
+      return Long.MAX_VALUE;
+    }
+    long mm = (long) Math.min(Math.ceil(min * 10.0), Integer.MAX_VALUE + 1L);
+    while (mm > 0 && (float) (mm - 1) / 10 >= min) {
+      mm--;
+    }
+    while (mm <= Integer.MAX_VALUE && (float) mm / 10 < min) {
+      mm++;
+    }
+    return mm;
+  }
+
+  /**
+   * Returns the largest length in millimeters which, converted to centimeters as by
+   * {@link Flower#getLength()}, is not greater than the specified length.
+   *
+   * @param max the length in centimeters
+   * @return the largest matching length in millimeters, or a negative value if there is none
+   */
+  static long lastMillimeters(float max) {
+    if (!(max >= 0)) {
+      return -1;
+    }
+    long mm = (long) Math.min(Math.floor(max * 10.0), Integer.MAX_VALUE);
+    while (mm < Integer.MAX_VALUE && (float) (mm + 1) / 10 <= max) {
+      mm++;
+    }
+    while (mm >= 0 && (float) mm / 10 > max) {
+      mm--;
+    }
+    return mm;
+  }
+}
@@ -0,0 +1,325 @@
+package dev.mkushnir885.flowers;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Selects the flowers with the greatest or the least values of a numeric property, without sorting
+ * all flowers and without changing the order of the source.
+ * <p>
+ * Values are compared as {@link Double#compare(double, double)} compares them, and of flowers with
+ * equal values the one met first is selected first, so the result is the same as the first
+ * {@code k} flowers of a stable sort.
+ * </p>
+ * <p>
+ * Flowers from an iterator are passed through a bounded heap of the {@code k} best flowers so far,
+ * in {@code O(n log k)} time and {@code O(k)} memory. Most flowers are rejected by a single
+ * comparison with the worst flower of the heap. From an array, a small {@code k} is selected the
+ * same way, and a large one by quickselect over a {@code long[]} of keys and an {@code int[]} of
+ * positions, in expected {@code O(n + k log k)} time; the flowers themselves are not copied.
+ * </p>
+ */
+public final class FlowerSelection {
+
+  /**
+   * The ratio of the number of flowers to {@code k} from which an array is selected by the heap
+   * rather than by quickselect.
+   */
+  private static final int HEAP_RATIO = 16;
+
+  private final long[] keys;
+  private final int[] positions;
+  private final Object[] items;
+  private int size;
+
+  private FlowerSelection(int capacity, boolean withItems) {
+    keys = new long[capacity];
+    positions = new int[capacity];
+    items = withItems ? new Object[capacity] : null;
+  }
+
+  /**
+   * Returns the {@code k} flowers of an iterator with the greatest values of a property.
+   *
+   * @param <F>      the type of the flowers
+   * @param flowers  the flowers to select from
+   * @param k        the number of flowers to select
+   * @param property the property to select by
+   * @return at most {@code k} flowers in descending order of the property
+   * @throws IllegalArgumentException if {@code k} is negative
+   */
+  public static <F extends Flower> List<F> top(Iterator<? extends F> flowers, int k,
+      ToDoubleFunction<? super F> property) {
+    return select(flowers, k, property, true);
+  }
+
+  /**
+   * Returns the {@code k} flowers of an iterator with the least values of a property.
+   *
+   * @param <F>      the type of the flowers
+   * @param flowers  the flowers to select from
+   * @param k        the number of flowers to select
+   * @param property the property to select by
+   * @return at most {@code k} flowers in ascending order of the property
+   * @throws IllegalArgumentException if {@code k} is negative
+   */
+  public static <F extends Flower> List<F> bottom(Iterator<? extends F> flowers, int k,
+      ToDoubleFunction<? super F> property) {
+    return select(flowers, k, property, false);
+  }
+
+  /**
+   * Returns the {@code k} flowers among the first ones of an array with the greatest values of a
+   * property. The array is not modified.
+   *
+   * @param <F>      the type of the flowers
+   * @param flowers  the flowers to select from
+   * @param count    the number of flowers to select from, from the start of the array
+   * @param k        the number of flowers to select
+   * @param property the property to select by
+   * @return at most {@code k} flowers in descending order of the property
+   * @throws IllegalArgumentException  if {@code k} is negative
+   * @throws IndexOutOfBoundsException if {@code count} is negative or greater than the length of
+   *                                   the array
+   */
+  public static <F extends Flower> List<F> top(F[] flowers, int count, int k,
+      ToDoubleFunction<? super F> property) {
+    return select(flowers, count, k, property, true);
+  }
+
+  /**
+   * Returns the {@code k} flowers among the first ones of an array with the least values of a
+   * property. The array is not modified.
+   *
+   * @param <F>      the type of the flowers
+   * @param flowers  the flowers to select from
+   * @param count    the number of flowers to select from, from the start of the array
+   * @param k        the number of flowers to select
+   * @param property the property to select by
+   * @return at most {@code k} flowers in ascending order of the property
+   * @throws IllegalArgumentException  if {@code k} is negative
+   * @throws IndexOutOfBoundsException if {@code count} is negative or greater than the length of
+   *                                   the array
+   */
+  public static <F extends Flower> List<F> bottom(F[] flowers, int count, int k,
+      ToDoubleFunction<? super F> property) {
+    return select(flowers, count, k, property, false);
+  }
+
+  private static <F extends Flower> List<F> select(Iterator<? extends F> flowers, int k,
+      ToDoubleFunction<? super F> property, boolean descending) {
+    checkK(k);
+    var heap = new FlowerSelection(Math.min(k, 16), true);
+    for (int position = 0; flowers.hasNext(); position++) {
+      F flower = flowers.next();
+      heap = heap.offer(key(property.applyAsDouble(flower), descending), position, flower, k);
+    }
+    return heap.drain(null);
+  }
+
+  private static <F extends Flower> List<F> select(F[] flowers, int count, int k,
+      ToDoubleFunction<? super F> property, boolean descending) {
+    checkK(k);
+    Objects.checkFromToIndex(0, count, flowers.length);
+    k = Math.min(k, count);
+
+    if (k < count / HEAP_RATIO) {
+      var heap = new FlowerSelection(k, false);
+      for (int i = 0; i < count; i++) {
+        heap.offer(key(property.applyAsDouble(flowers[i]), descending), i, null, k);
+      }
+      return heap.drain(flowers);
+    }
+
+    var selection = new FlowerSelection(count, false);
+    for (int i = 0; i < count; i++) {
+      selection.keys[i] = key(property.applyAsDouble(flowers[i]), descending);
+      selection.positions[i] = i;
+    }
+    selection.size = count;
+    if (k < count) {
+      selection.quickselect(k);
+    }
+    selection.size = k;
+    for (int i = k / 2 - 1; i >= 0; i--) {
+      selection.siftDown(i, k);
+    }
+    return selection.drain(flowers);
+  }
+
+  /**
+   * Converts a value into a key whose order as a signed {@code long} is the order of
+   * {@link Double#compare(double, double)}, or the reverse of it for a descending selection.
+   *
+   * @param value      the value to convert
+   * @param descending {@code true} to reverse the order
+   * @return the key
+   */
+  private static long key(double value, boolean descending) {
+    long bits = Double.doubleToLongBits(value);
+    long key = bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    return descending ? ~key : key;
+  }
+
+  private static void checkK(int k) {
+    if (k < 0) {
+      throw new IllegalArgumentException("number of flowers to select cannot be negative");
+    }
+  }
+
+  /**
+   * Offers a flower to the heap of the {@code k} least keys. While the heap is not full the flower
+   * is added, and afterwards it replaces the greatest key of the heap if its own key is less.
+   *
+   * @param key      the key of the flower
+   * @param position the position of the flower in the source
+   * @param item     the flower, or {@code null} if it is found by its position
+   * @param k        the capacity of the heap
+   * @return this heap, or a larger copy of it if it had to grow
+   */
+  private FlowerSelection offer(long key, int position, Object item, int k) {
+    if (size < k) {
+      var heap = (size == keys.length) ? grow(k) : this;
+      heap.set(heap.size, key, position, item);
+      heap.siftUp(heap.size++);
+      return heap;
+    }
+    if (k > 0 && key < keys[0]) {
+      set(0, key, position, item);
+      siftDown(0, size);
+    }
+    return this;
+  }
+
+  private FlowerSelection grow(int k) {
+    int capacity = (int) Math.min(k, Math.max(16, 2L * keys.length));
+    var heap = new FlowerSelection(capacity, items != null);
+    System.arraycopy(keys, 0, heap.keys, 0, size);
+    System.arraycopy(positions, 0, heap.positions, 0, size);
+    if (items != null) {
+      System.arraycopy(items, 0, heap.items, 0, size);
+    }
+    heap.size = size;
+    return heap;
+  }
+
+  /**
+   * Sorts the heap in ascending order of keys and returns its flowers in that order.
+   *
+   * @param <F>     the type of the flowers
+   * @param flowers the source array of the flowers, or {@code null} if the heap holds them
+   * @return the flowers of the heap
+   */
+  @SuppressWarnings("unchecked")
+  private <F extends Flower> List<F> drain(F[] flowers) {
+    for (int end = size - 1; end > 0; end--) {
+      swap(0, end);
+      siftDown(0, end);
+    }
+
+    var selected = new ArrayList<F>(size);
+    for (int i = 0; i < size; i++) {
+      selected.add((flowers != null) ? flowers[positions[i]] : (F) items[i]);
+    }
+    return selected;
+  }
+
+  /**
+   * Compares two entries by key and, for equal keys, by position, so that no two entries are
+   * equal.
+   *
+   * @param i the index of the first entry
+   * @param j the index of the second entry
+   * @return {@code true} if the first entry comes before the second
+   */
+  private boolean less(int i, int j) {
+    return keys[i] < keys[j] || (keys[i] == keys[j] && positions[i] < positions[j]);
+  }
+
+  private void siftUp(int i) {
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (!less(parent, i)) {
+        return;
+      }
+      swap(parent, i);
+      i = parent;
+    }
+  }
+
+  /**
+   * Moves an entry down a max-heap until neither of its children comes after it.
+   *
+   * @param i   the index of the entry
+   * @param end the number of entries in the heap
+   */
+  private void siftDown(int i, int end) {
+    for (int child = 2 * i + 1; child < end; child = 2 * i + 1) {
+      if (child + 1 < end && less(child, child + 1)) {
+        child++;
+      }
+      if (!less(i, child)) {
+        return;
+      }
+      swap(i, child);
+      i = child;
+    }
+  }
+
+  /**
+   * Rearranges the entries so that the first {@code k} of them are the least ones, in any order.
+   * Each partition is made around a random entry, so the expected time is linear whatever the
+   * order of the flowers.
+   *
+   * @param k the number of entries to move to the front
+   */
+  private void quickselect(int k) {
+    int from = 0;
+    int to = size;
+    var random = ThreadLocalRandom.current();
+    while (to - from > 1) {
+      swap(from + random.nextInt(to - from), to - 1);
+      int pivot = from;
+      for (int i = from; i < to - 1; i++) {
+        if (less(i, to - 1)) {
+          swap(i, pivot++);
+        }
+      }
+      swap(pivot, to - 1);
+
+      if (pivot < k) {
+        from = pivot + 1;
+      } else if (pivot > k) {
+        to = pivot;
+      } else {
+        return;
+      }
+    }
+  }
+
+  private void set(int i, long key, int position, Object item) {
+    keys[i] = key;
+    positions[i] = position;
+    if (items != null) {
+      items[i] = item;
+    }
+  }
+
+  private void swap(int i, int j) {
+    long key = keys[i];
+    keys[i] = keys[j];
+    keys[j] = key;
+    int position = positions[i];
+    positions[i] = positions[j];
+    positions[j] = position;
+    if (items != null) {
+      Object item = items[i];
+      items[i] = items[j];
+      items[j] = item;
+    }
+  }
+}
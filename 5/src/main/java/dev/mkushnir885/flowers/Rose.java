@@ -33,15 +33,42 @@ public class Rose extends Flower {
   }
 
   /**
-   * Returns a string representation of this rose, including common flower properties and its thorns
-   * status.
+   * Compares this rose to the specified object for equality.
    *
-   * @return a formatted string describing the rose
+   * @param obj the object to compare
+   * @return {@code true} if the specified object is a rose with the same properties as this
+   * rose, otherwise {@code false}
    */
   @Override
-  public String toString() {
-    return String.format("Rose\t{ %s, thorns: %s }",
-        super.toString(),
-        (hasThorns ? "yes" : "no"));
+  public boolean equals(Object obj) {
+    if (!super.equals(obj)) {
+      return false;
+    }
+    return hasThorns == ((Rose) obj).hasThorns;
+  }
+
+  /**
+   * Returns a hash code value for this rose, consistent with {@link #equals(Object)}.
+   *
+   * @return a hash code value for this rose
+   */
+  @Override
+  public int hashCode() {
+    return 31 * super.hashCode() + Boolean.hashCode(hasThorns);
+  }
+
+  /**
+   * Appends a description of this rose, including common flower properties and its thorns status,
+   * to a builder.
+   *
+   * @param sb the builder to append to
+   * @return the builder
+   */
+  @Override
+  public StringBuilder appendTo(StringBuilder sb) {
+    return super.appendTo(sb.append("Rose\t{ "))
+        .append(", thorns: ")
+        .append(hasThorns ? "yes" : "no")
+        .append(" }");
   }
 }
@@ -22,6 +22,11 @@ public abstract class Flower {
    */
   private final int length;
 
+  /**
+   * The string representation of this flower, built on the first call to {@link #toString()}.
+   */
+  private String string;
+
   /**
    * Constructs a new {@code Flower} object with the specified initial price, freshness, and
    * length.
@@ -76,15 +81,100 @@ public abstract class Flower {
   }
 
   /**
-   * Returns a string representation of this flower, including its price, freshness, and length.
+   * Retrieves the initial price of this flower, before freshness is taken into account.
+   *
+   * @return the initial price
+   */
+  double initialPrice() {
+    return initialPrice;
+  }
+
+  /**
+   * Retrieves the freshness of this flower as a value between 0 and 1.
+   *
+   * @return the freshness
+   */
+  double freshness() {
+    return freshness;
+  }
+
+  /**
+   * Retrieves the length of this flower in millimeters, as it was specified.
+   *
+   * @return the length in millimeters
+   */
+  int lengthInMillimeters() {
+    return length;
+  }
+
+  /**
+   * Compares this flower to the specified object for equality.
+   * <p>
+   * Two flowers are considered equal if they are of the same class and have the same initial
+   * price, freshness, and length.
+   *
+   * @param obj the object to compare
+   * @return {@code true} if the specified object is a flower of the same class with the same
+   * properties as this flower, otherwise {@code false}
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+
+    var other = (Flower) obj;
+    return Double.compare(initialPrice, other.initialPrice) == 0 &&
+        Double.compare(freshness, other.freshness) == 0 &&
+        length == other.length;
+  }
+
+  /**
+   * Returns a hash code value for this flower, consistent with {@link #equals(Object)}.
+   *
+   * @return a hash code value for this flower
+   */
+  @Override
+  public int hashCode() {
+    int result = getClass().hashCode();
+    result = 31 * result + Double.hashCode(initialPrice);
+    result = 31 * result + Double.hashCode(freshness);
+    return 31 * result + length;
+  }
+
+  /**
+   * Returns a string representation of this flower, as appended by
+   * {@link #appendTo(StringBuilder)}. Since flowers are immutable, the string is built once and
+   * cached.
    *
    * @return a formatted string describing the flower
    */
   @Override
   public String toString() {
-    return String.format("price: %6.2f$, freshness level: %5.1f%%, length: %6.2fcm",
-        getPrice(),
-        getFreshnessLevel(),
-        getLength());
+    String s = string;
+    if (s == null) {
+      string = s = appendTo(new StringBuilder(128)).toString();
+    }
+    return s;
+  }
+
+  /**
+   * Appends a description of this flower, including its price, freshness, and length, to a
+   * builder. Subclasses append their own properties around it.
+   * <p>
+   * The numbers are printed as {@code String.format} prints them, but without a
+   * {@link java.util.Formatter}, so many flowers can be written through one reusable builder.
+   *
+   * @param sb the builder to append to
+   * @return the builder
+   */
+  public StringBuilder appendTo(StringBuilder sb) {
+    FixedPoint.append(sb.append("price: "), getPrice(), 6, 2);
+    FixedPoint.append(sb.append("$, freshness level: "), getFreshnessLevel(), 5, 1);
+    FixedPoint.append(sb.append("%, length: "), getLength(), 6, 2);
+    return sb.append("cm");
   }
 }
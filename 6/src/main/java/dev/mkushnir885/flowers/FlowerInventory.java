@@ -0,0 +1,343 @@
+package dev.mkushnir885.flowers;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Objects;
+
+/**
+ * An inventory of flowers stored by columns, for pricing and length queries over millions of stems
+ * without following a reference to a {@link Flower} object for each of them.
+ * <p>
+ * Each property is kept in its own primitive array: initial prices and freshness in
+ * {@code double[]} columns, lengths in millimeters in an {@code int[]} and the kind of each flower
+ * in a {@code byte[]} tag column. The properties of the subclasses have columns of their own, used
+ * only by the rows of the matching kind. Colors of tulips, which repeat heavily, are stored once
+ * in a palette and rows hold their {@code int} index.
+ * </p>
+ * <p>
+ * The aggregate methods scan the columns with simple counted loops over primitive arrays, which the
+ * JIT compiler can unroll and vectorize. Flowers are created from rows only on demand, by
+ * {@link #flower(int)}.
+ * </p>
+ */
+public final class FlowerInventory {
+
+  /**
+   * The kinds of flowers an inventory can hold.
+   */
+  public enum Kind {
+
+    /**
+     * A {@link Rose}.
+     */
+    ROSE,
+
+    /**
+     * A {@link Tulip}.
+     */
+    TULIP,
+
+    /**
+     * A {@link Lily}.
+     */
+    LILY;
+
+    private static final Kind[] VALUES = values();
+  }
+
+  private int size;
+  private double[] initialPrices;
+  private double[] freshnesses;
+  private int[] lengths;
+  private byte[] kinds;
+  private final BitSet thorns = new BitSet();
+  private byte[] bloomSeasons;
+  private int[] colorIndices;
+  private int[] petalCounts;
+
+  /**
+   * The distinct colors of the tulips in the order they were first added.
+   */
+  private final ArrayList<Color> palette = new ArrayList<>();
+
+  /**
+   * The indices of the colors in {@link #palette}.
+   */
+  private final HashMap<Color, Integer> paletteIndices = new HashMap<>();
+
+  /**
+   * Constructs an empty inventory sized for approximately the specified number of flowers.
+   *
+   * @param capacity the expected number of flowers
+   */
+  public FlowerInventory(int capacity) {
+    capacity = Math.max(capacity, 16);
+    initialPrices = new double[capacity];
+    freshnesses = new double[capacity];
+    lengths = new int[capacity];
+    kinds = new byte[capacity];
+    bloomSeasons = new byte[capacity];
+    colorIndices = new int[capacity];
+    petalCounts = new int[capacity];
+  }
+
+  /**
+   * Constructs an inventory holding the specified flowers in the same order.
+   *
+   * @param flowers the flowers to store
+   * @return the inventory of the flowers
+   * @throws IllegalArgumentException if a flower is {@code null} or not a rose, tulip or lily
+   */
+  public static FlowerInventory of(Flower[] flowers) {
+    var inventory = new FlowerInventory(flowers.length);
+    for (var flower : flowers) {
+      inventory.add(flower);
+    }
+    return inventory;
+  }
+
+  /**
+   * Constructs an inventory holding the flowers of the specified collection, in its iteration
+   * order.
+   *
+   * @param flowers the flowers to store
+   * @return the inventory of the flowers
+   * @throws IllegalArgumentException if a flower is {@code null} or not a rose, tulip or lily
+   */
+  public static FlowerInventory of(Iterable<? extends Flower> flowers) {
+    var inventory = new FlowerInventory(16);
+    for (var flower : flowers) {
+      inventory.add(flower);
+    }
+    return inventory;
+  }
+
+  /**
+   * Appends a flower to the end of this inventory.
+   *
+   * @param flower the flower to append
+   * @throws IllegalArgumentException if the flower is {@code null} or not a rose, tulip or lily
+   */
+  public void add(Flower flower) {
+    if (flower == null) {
+      throw new IllegalArgumentException("flower cannot be null");
+    }
+
+    if (size == initialPrices.length) {
+      int capacity = size * 2;
+      initialPrices = Arrays.copyOf(initialPrices, capacity);
+      freshnesses = Arrays.copyOf(freshnesses, capacity);
+      lengths = Arrays.copyOf(lengths, capacity);
+      kinds = Arrays.copyOf(kinds, capacity);
+      bloomSeasons = Arrays.copyOf(bloomSeasons, capacity);
+      colorIndices = Arrays.copyOf(colorIndices, capacity);
+      petalCounts = Arrays.copyOf(petalCounts, capacity);
+    }
+
+    switch (flower) {
+      case Rose rose -> {
+        kinds[size] = (byte) Kind.ROSE.ordinal();
+        thorns.set(size, rose.hasThorns());
+      }
+      case Tulip tulip -> {
+        kinds[size] = (byte) Kind.TULIP.ordinal();
+        bloomSeasons[size] = (byte) tulip.bloomSeasonIndex();
+        colorIndices[size] = paletteIndex(tulip.color());
+      }
+      case Lily lily -> {
+        kinds[size] = (byte) Kind.LILY.ordinal();
+        petalCounts[size] = lily.getPetalCount();
+      }
+      default -> throw new IllegalArgumentException(
+          "unsupported flower type: " + flower.getClass().getName());
+    }
+    initialPrices[size] = flower.initialPrice();
+    freshnesses[size] = flower.freshness();
+    lengths[size] = flower.lengthInMillimeters();
+    size++;
+  }
+
+  /**
+   * Returns the number of flowers in this inventory.
+   *
+   * @return the number of rows
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the kind of the flower in the specified row.
+   *
+   * @param row the index of the row
+   * @return the kind of the flower
+   */
+  public Kind kind(int row) {
+    return Kind.VALUES[kinds[checkRow(row)]];
+  }
+
+  /**
+   * Returns the price of the flower in the specified row, as {@link Flower#getPrice()} does.
+   *
+   * @param row the index of the row
+   * @return the price of the flower
+   */
+  public double price(int row) {
+    checkRow(row);
+    return initialPrices[row] * freshnesses[row];
+  }
+
+  /**
+   * Returns the freshness level of the flower in the specified row, as
+   * {@link Flower#getFreshnessLevel()} does.
+   *
+   * @param row the index of the row
+   * @return the freshness level as a percentage (0-100%)
+   */
+  public double freshnessLevel(int row) {
+    return freshnesses[checkRow(row)] * 100;
+  }
+
+  /**
+   * Returns the length of the flower in the specified row, as {@link Flower#getLength()} does.
+   *
+   * @param row the index of the row
+   * @return the length in centimeters
+   */
+  public float length(int row) {
+    return (float) lengths[checkRow(row)] / 10;
+  }
+
+  /**
+   * Creates a Flower object from the specified row.
+   *
+   * @param row the index of the row
+   * @return a new flower of the kind and with the properties of the row
+   */
+  public Flower flower(int row) {
+    return switch (kind(row)) {
+      case ROSE -> new Rose(initialPrices[row], freshnesses[row], lengths[row], thorns.get(row));
+      case TULIP -> new Tulip(initialPrices[row], freshnesses[row], lengths[row],
+          bloomSeasons[row], palette.get(colorIndices[row]));
+      case LILY -> new Lily(initialPrices[row], freshnesses[row], lengths[row], petalCounts[row]);
+    };
+  }
+
+  /**
+   * Creates Flower objects from the specified rows, in the same order.
+   *
+   * @param rows the indices of the rows
+   * @return an array of new flowers
+   */
+  public Flower[] flowers(int[] rows) {
+    var flowers = new Flower[rows.length];
+    for (int i = 0; i < rows.length; i++) {
+      flowers[i] = flower(rows[i]);
+    }
+    return flowers;
+  }
+
+  /**
+   * Calculates the total price of all flowers in this inventory.
+   * <p>
+   * The products are summed into four independent partial sums, so consecutive additions do not
+   * wait for each other. The result may therefore differ from a sum in row order in the last
+   * bits.
+   * </p>
+   *
+   * @return the sum of the prices of the flowers
+   */
+  public double totalPrice() {
+    double sum0 = 0;
+    double sum1 = 0;
+    double sum2 = 0;
+    double sum3 = 0;
+
+    int row = 0;
+    for (; row + 3 < size; row += 4) {
+      sum0 += initialPrices[row] * freshnesses[row];
+      sum1 += initialPrices[row + 1] * freshnesses[row + 1];
+      sum2 += initialPrices[row + 2] * freshnesses[row + 2];
+      sum3 += initialPrices[row + 3] * freshnesses[row + 3];
+    }
+    for (; row < size; row++) {
+      sum0 += initialPrices[row] * freshnesses[row];
+    }
+    return (sum0 + sum1) + (sum2 + sum3);
+  }
+
+  /**
+   * Counts the flowers in equal-width ranges of freshness. The range from 0 to 1 is split into the
+   * specified number of bins, and a freshness of exactly 1 falls into the last one.
+   *
+   * @param bins the number of bins
+   * @return the number of flowers in each bin, from the least to the most fresh
+   * @throws IllegalArgumentException if the number of bins is not positive
+   */
+  public int[] freshnessHistogram(int bins) {
+    if (bins <= 0) {
+      throw new IllegalArgumentException("number of bins must be positive");
+    }
+
+    var histogram = new int[bins];
+    int last = bins - 1;
+    for (int row = 0; row < size; row++) {
+      histogram[Math.min((int) (freshnesses[row] * bins), last)]++;
+    }
+    return histogram;
+  }
+
+  /**
+   * Counts the flowers whose length falls within the specified range (inclusive), with the same
+   * comparison as {@code Bouquet.indexOfFlowerByLength}.
+   * <p>
+   * The range in centimeters is converted once into a range of whole millimeters, and then only
+   * the {@code int} column is compared.
+   * </p>
+   *
+   * @param min the minimum length in centimeters (inclusive)
+   * @param max the maximum length in centimeters (inclusive)
+   * @return the number of flowers in the range
+   * @throws IllegalArgumentException if {@code min} is negative or {@code min} is greater than
+   *                                  {@code max}
+   */
+  public int countByLength(float min, float max) {
+    if (min < 0 || min > max) {
+      throw new IllegalArgumentException("invalid flower length range");
+    }
+
+    long from = FlowerLengthIndex.firstMillimeters(min);
+    long to = FlowerLengthIndex.lastMillimeters(max);
+    if (from > to) {
+      return 0;
+    }
+
+    // Both differences are non-negative exactly when the length is in the range, so the sign bit
+    // of their union is the complement of the match, and the loop has no branches to mispredict
+    int count = 0;
+    int low = (int) from;
+    int high = (int) to;
+    for (int row = 0; row < size; row++) {
+      int length = lengths[row];
+      count += (((length - low) | (high - length)) >>> 31) ^ 1;
+    }
+    return count;
+  }
+
+  private int paletteIndex(Color color) {
+    Integer index = paletteIndices.get(color);
+    if (index != null) {
+      return index;
+    }
+    palette.add(color);
+    paletteIndices.put(color, palette.size() - 1);
+    return palette.size() - 1;
+  }
+
+  private int checkRow(int row) {
+    return Objects.checkIndex(row, size);
+  }
+}
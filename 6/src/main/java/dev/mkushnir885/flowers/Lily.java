@@ -39,13 +39,40 @@ public class Lily extends Flower {
   }
 
   /**
-   * Returns a string representation of this lily, including common flower properties and petal
-   * count.
+   * Compares this lily to the specified object for equality.
    *
-   * @return a formatted string describing the lily
+   * @param obj the object to compare
+   * @return {@code true} if the specified object is a lily with the same properties as this
+   * lily, otherwise {@code false}
    */
   @Override
-  public String toString() {
-    return String.format("Lily\t{ %s, petals: %d }", super.toString(), petalCount);
+  public boolean equals(Object obj) {
+    if (!super.equals(obj)) {
+      return false;
+    }
+    return petalCount == ((Lily) obj).petalCount;
+  }
+
+  /**
+   * Returns a hash code value for this lily, consistent with {@link #equals(Object)}.
+   *
+   * @return a hash code value for this lily
+   */
+  @Override
+  public int hashCode() {
+    return 31 * super.hashCode() + petalCount;
+  }
+
+  /**
+   * Appends a description of this lily, including common flower properties and petal count, to a
+   * builder.
+   *
+   * @param sb the builder to append to
+   * @return the builder
+   */
+  @Override
+  public StringBuilder appendTo(StringBuilder sb) {
+    super.appendTo(sb.append("Lily\t{ ")).append(", petals: ");
+    return FixedPoint.append(sb, petalCount, 0).append(" }");
   }
 }
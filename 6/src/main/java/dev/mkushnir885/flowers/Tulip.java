@@ -7,6 +7,11 @@ import java.awt.Color;
  */
 public class Tulip extends Flower {
 
+  /**
+   * The names of the bloom seasons, indexed by season.
+   */
+  private static final String[] SEASONS = {"Winter", "Spring", "Summer", "Autumn"};
+
   /**
    * The bloom season of this tulip (0: Winter, 1: Spring, 2: Summer, 3: Autumn).
    */
@@ -48,8 +53,7 @@ public class Tulip extends Flower {
    * @return the bloom season of the tulip (e.g., "Winter", "Spring")
    */
   public String getBloomSeason() {
-    String[] seasons = {"Winter", "Spring", "Summer", "Autumn"};
-    return seasons[bloomSeason];
+    return SEASONS[bloomSeason];
   }
 
   /**
@@ -62,16 +66,63 @@ public class Tulip extends Flower {
   }
 
   /**
-   * Returns a string representation of this tulip, including common flower properties, its color,
-   * and bloom season.
+   * Retrieves the bloom season of this tulip as a number.
+   *
+   * @return the bloom season (0: Winter, 1: Spring, 2: Summer, 3: Autumn)
+   */
+  int bloomSeasonIndex() {
+    return bloomSeason;
+  }
+
+  /**
+   * Retrieves the color of this tulip as a {@link Color} object.
+   *
+   * @return the color of the tulip
+   */
+  Color color() {
+    return color;
+  }
+
+  /**
+   * Compares this tulip to the specified object for equality.
+   *
+   * @param obj the object to compare
+   * @return {@code true} if the specified object is a tulip with the same properties as this
+   * tulip, otherwise {@code false}
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (!super.equals(obj)) {
+      return false;
+    }
+    var other = (Tulip) obj;
+    return bloomSeason == other.bloomSeason && color.equals(other.color);
+  }
+
+  /**
+   * Returns a hash code value for this tulip, consistent with {@link #equals(Object)}.
+   *
+   * @return a hash code value for this tulip
+   */
+  @Override
+  public int hashCode() {
+    return 31 * (31 * super.hashCode() + bloomSeason) + color.hashCode();
+  }
+
+  /**
+   * Appends a description of this tulip, including common flower properties, its color, and bloom
+   * season, to a builder.
    *
-   * @return a formatted string describing the tulip
+   * @param sb the builder to append to
+   * @return the builder
    */
   @Override
-  public String toString() {
-    return String.format("Tulip\t{ %s, bloom season: %s, color: %s }",
-        super.toString(),
-        getBloomSeason(),
-        getColor());
+  public StringBuilder appendTo(StringBuilder sb) {
+    return super.appendTo(sb.append("Tulip\t{ "))
+        .append(", bloom season: ")
+        .append(getBloomSeason())
+        .append(", color: ")
+        .append(color)
+        .append(" }");
   }
 }
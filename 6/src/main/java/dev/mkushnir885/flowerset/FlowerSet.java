@@ -5,8 +5,10 @@ import java.util.Set;
 import java.util.Iterator;
 import java.util.Collection;
 import java.util.Arrays;
+import java.util.List;
 
 import dev.mkushnir885.flowers.Flower;
+import dev.mkushnir885.flowers.FlowerSelection;
 
 /**
  * A custom implementation of a {@link Set} that stores {@link Flower} objects. Ensures that all
@@ -17,15 +19,46 @@ import dev.mkushnir885.flowers.Flower;
 public class FlowerSet<F extends Flower> implements Set<F> {
 
   /**
-   * An internal singly linked list to store the flowers.
+   * The kinds of internal storage a {@code FlowerSet} can be backed by.
    */
-  private final SinglyLinkedList<F> flowers;
+  public enum StorageMode {
+
+    /**
+     * A hash table. Lookups, insertions and removals take constant time on average, but the
+     * iteration order is unspecified.
+     */
+    HASH_TABLE,
+
+    /**
+     * A singly linked list. Lookups, insertions and removals take linear time, but the iteration
+     * order is the insertion order.
+     */
+    LINKED_LIST
+  }
+
+  /**
+   * An internal storage holding the flowers.
+   */
+  private final Storage<F> flowers;
 
   /**
-   * Constructs an empty {@code FlowerSet}.
+   * Constructs an empty {@code FlowerSet} backed by a hash table.
    */
   public FlowerSet() {
-    this.flowers = new SinglyLinkedList<>();
+    this(StorageMode.HASH_TABLE);
+  }
+
+  /**
+   * Constructs an empty {@code FlowerSet} backed by the specified kind of storage.
+   *
+   * @param mode the kind of storage to back the set with
+   * @throws NullPointerException if the specified mode is {@code null}
+   */
+  public FlowerSet(StorageMode mode) {
+    this.flowers = switch (mode) {
+      case HASH_TABLE -> new HashTable<>();
+      case LINKED_LIST -> new SinglyLinkedList<>();
+    };
   }
 
   /**
@@ -77,7 +110,7 @@ public class FlowerSet<F extends Flower> implements Set<F> {
       return false;
     }
     var that = (FlowerSet<?>) o;
-    return Objects.equals(this, that);
+    return size() == that.size() && containsAll(that);
   }
 
   /**
@@ -85,7 +118,11 @@ public class FlowerSet<F extends Flower> implements Set<F> {
    */
   @Override
   public int hashCode() {
-    return Objects.hash(flowers);
+    int hash = 0;
+    for (F flower : this) {
+      hash += Objects.hashCode(flower);
+    }
+    return hash;
   }
 
   /**
@@ -220,4 +257,74 @@ public class FlowerSet<F extends Flower> implements Set<F> {
     }
     return a;
   }
+
+  /**
+   * Returns the freshest flowers of the set, selected in a single pass over it.
+   * <p>
+   * The flowers are passed through a heap of the freshest ones so far, in {@code O(n log k)} time,
+   * without copying or sorting the whole set.
+   *
+   * @param k the number of flowers to return
+   * @return at most {@code k} flowers, from the most to the least fresh; of flowers equally fresh,
+   * those met first in the iteration order come first
+   * @throws IllegalArgumentException if {@code k} is negative
+   */
+  public List<F> getFreshestFlowers(int k) {
+    return FlowerSelection.top(iterator(), k, Flower::getFreshnessLevel);
+  }
+
+  /**
+   * Returns the least fresh flowers of the set, as {@link #getFreshestFlowers(int)} does.
+   *
+   * @param k the number of flowers to return
+   * @return at most {@code k} flowers, from the least to the most fresh
+   * @throws IllegalArgumentException if {@code k} is negative
+   */
+  public List<F> getStalestFlowers(int k) {
+    return FlowerSelection.bottom(iterator(), k, Flower::getFreshnessLevel);
+  }
+
+  /**
+   * Returns the cheapest flowers of the set, as {@link #getFreshestFlowers(int)} does.
+   *
+   * @param k the number of flowers to return
+   * @return at most {@code k} flowers, from the cheapest to the most expensive
+   * @throws IllegalArgumentException if {@code k} is negative
+   */
+  public List<F> getCheapestFlowers(int k) {
+    return FlowerSelection.bottom(iterator(), k, Flower::getPrice);
+  }
+
+  /**
+   * Returns the most expensive flowers of the set, as {@link #getFreshestFlowers(int)} does.
+   *
+   * @param k the number of flowers to return
+   * @return at most {@code k} flowers, from the most expensive to the cheapest
+   * @throws IllegalArgumentException if {@code k} is negative
+   */
+  public List<F> getMostExpensiveFlowers(int k) {
+    return FlowerSelection.top(iterator(), k, Flower::getPrice);
+  }
+
+  /**
+   * Returns the shortest flowers of the set, as {@link #getFreshestFlowers(int)} does.
+   *
+   * @param k the number of flowers to return
+   * @return at most {@code k} flowers, from the shortest to the longest
+   * @throws IllegalArgumentException if {@code k} is negative
+   */
+  public List<F> getShortestFlowers(int k) {
+    return FlowerSelection.bottom(iterator(), k, Flower::getLength);
+  }
+
+  /**
+   * Returns the longest flowers of the set, as {@link #getFreshestFlowers(int)} does.
+   *
+   * @param k the number of flowers to return
+   * @return at most {@code k} flowers, from the longest to the shortest
+   * @throws IllegalArgumentException if {@code k} is negative
+   */
+  public List<F> getLongestFlowers(int k) {
+    return FlowerSelection.top(iterator(), k, Flower::getLength);
+  }
 }
@@ -0,0 +1,243 @@
+package dev.mkushnir885.flowerset;
+
+import java.util.Objects;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A simple implementation of a hash table with separate chaining that stores elements of a generic
+ * type. Lookups, insertions and removals run in constant time on average.
+ *
+ * @param <T> the type of elements stored in this hash table
+ */
+class HashTable<T> implements Storage<T> {
+
+  /**
+   * The initial number of buckets. Must be a power of two.
+   */
+  private static final int INITIAL_CAPACITY = 16;
+
+  /**
+   * The ratio of elements to buckets above which the table is resized.
+   */
+  private static final float LOAD_FACTOR = 0.75f;
+
+  /**
+   * The buckets of this hash table. The length is always a power of two.
+   */
+  private Node<T>[] buckets;
+
+  /**
+   * The number of elements in this hash table.
+   */
+  private int size;
+
+  /**
+   * The number of elements at which the table is resized next.
+   */
+  private int threshold;
+
+  /**
+   * Constructs an empty hash table.
+   */
+  public HashTable() {
+    clear();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean contains(Object o) {
+    int hash = hash(o);
+    var current = buckets[indexFor(hash, buckets.length)];
+    while (current != null) {
+      if (current.hash == hash && Objects.equals(current.value, o)) {
+        return true;
+      }
+      current = current.next;
+    }
+    return false;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void add(T value) {
+    if (size >= threshold) {
+      resize();
+    }
+    int hash = hash(value);
+    int index = indexFor(hash, buckets.length);
+    buckets[index] = new Node<>(value, hash, buckets[index]);
+    size++;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean remove(Object o) {
+    int hash = hash(o);
+    int index = indexFor(hash, buckets.length);
+
+    Node<T> prev = null;
+    var current = buckets[index];
+    while (current != null) {
+      if (current.hash == hash && Objects.equals(current.value, o)) {
+        if (prev == null) {
+          buckets[index] = current.next;
+        } else {
+          prev.next = current.next;
+        }
+        size--;
+        return true;
+      }
+      prev = current;
+      current = current.next;
+    }
+    return false;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public void clear() {
+    buckets = (Node<T>[]) new Node<?>[INITIAL_CAPACITY];
+    threshold = (int) (INITIAL_CAPACITY * LOAD_FACTOR);
+    size = 0;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Iterator<T> iterator() {
+    return new Iterator<>() {
+      private final Node<T>[] table = buckets;
+      private int index = 0;
+      private Node<T> next = advance(null);
+
+      private Node<T> advance(Node<T> node) {
+        if (node != null && node.next != null) {
+          return node.next;
+        }
+        while (index < table.length) {
+          var head = table[index++];
+          if (head != null) {
+            return head;
+          }
+        }
+        return null;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return next != null;
+      }
+
+      @Override
+      public T next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        var current = next;
+        next = advance(current);
+        return current.value;
+      }
+    };
+  }
+
+  /**
+   * Doubles the number of buckets and redistributes all nodes among them.
+   */
+  @SuppressWarnings("unchecked")
+  private void resize() {
+    var oldBuckets = buckets;
+    var newBuckets = (Node<T>[]) new Node<?>[oldBuckets.length * 2];
+
+    for (var head : oldBuckets) {
+      var current = head;
+      while (current != null) {
+        var next = current.next;
+        int index = indexFor(current.hash, newBuckets.length);
+        current.next = newBuckets[index];
+        newBuckets[index] = current;
+        current = next;
+      }
+    }
+
+    buckets = newBuckets;
+    threshold = (int) (newBuckets.length * LOAD_FACTOR);
+  }
+
+  /**
+   * Computes the hash of the specified element, spreading the higher bits downwards so that they
+   * take part in bucket selection.
+   *
+   * @param o the element to hash, may be {@code null}
+   * @return the spread hash of the element
+   */
+  private static int hash(Object o) {
+    int h = Objects.hashCode(o);
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Returns the bucket index for the specified hash.
+   *
+   * @param hash   the spread hash of an element
+   * @param length the number of buckets, a power of two
+   * @return the bucket index
+   */
+  private static int indexFor(int hash, int length) {
+    return hash & (length - 1);
+  }
+
+  /**
+   * A private static nested class representing a node in a bucket chain.
+   *
+   * @param <T> the type of value stored in the node
+   */
+  private static class Node<T> {
+
+    /**
+     * The value stored in the node.
+     */
+    final T value;
+
+    /**
+     * The cached spread hash of the value.
+     */
+    final int hash;
+
+    /**
+     * The reference to the next node in the bucket chain.
+     */
+    Node<T> next;
+
+    /**
+     * Constructs a new node with the specified value, hash and successor.
+     *
+     * @param value the value to be stored in the node
+     * @param hash  the spread hash of the value
+     * @param next  the next node in the bucket chain
+     */
+    Node(T value, int hash, Node<T> next) {
+      this.value = value;
+      this.hash = hash;
+      this.next = next;
+    }
+  }
+}
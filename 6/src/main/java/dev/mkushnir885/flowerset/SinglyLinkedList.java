@@ -9,7 +9,7 @@ import java.util.NoSuchElementException;
  *
  * @param <T> the type of elements stored in this singly linked list
  */
-class SinglyLinkedList<T> {
+class SinglyLinkedList<T> implements Storage<T> {
 
   /**
    * The head (first node) of this singly linked list.
@@ -40,6 +40,7 @@ class SinglyLinkedList<T> {
    *
    * @return the size of the list
    */
+  @Override
   public int size() {
     return size;
   }
@@ -50,6 +51,7 @@ class SinglyLinkedList<T> {
    * @param o the element to search for
    * @return {@code true} if the list contains the element; otherwise {@code false}
    */
+  @Override
   public boolean contains(Object o) {
     var current = head;
     while (current != null) {
@@ -66,6 +68,7 @@ class SinglyLinkedList<T> {
    *
    * @param value the element to be added
    */
+  @Override
   public void add(T value) {
     var node = new Node<>(value);
     if (tail == null) {
@@ -83,6 +86,7 @@ class SinglyLinkedList<T> {
    * @param o the element to be removed
    * @return {@code true} if the element was removed; otherwise {@code false}
    */
+  @Override
   public boolean remove(Object o) {
     if (head == null) {
       return false;
@@ -115,6 +119,7 @@ class SinglyLinkedList<T> {
   /**
    * Removes all elements from the list, leaving it empty.
    */
+  @Override
   public void clear() {
     head = null;
     tail = null;
@@ -126,6 +131,7 @@ class SinglyLinkedList<T> {
    *
    * @return an {@link Iterator} over the elements in this list
    */
+  @Override
   public Iterator<T> iterator() {
     return new Iterator<>() {
       private Node<T> current = head;
@@ -0,0 +1,55 @@
+package dev.mkushnir885.flowerset;
+
+import java.util.Iterator;
+
+/**
+ * A minimal container abstraction used by {@link FlowerSet} to hold its elements. Implementations
+ * are not required to reject duplicates; uniqueness is enforced by the set itself.
+ *
+ * @param <T> the type of elements stored in this storage
+ */
+interface Storage<T> {
+
+  /**
+   * Returns the number of elements in this storage.
+   *
+   * @return the number of stored elements
+   */
+  int size();
+
+  /**
+   * Checks if this storage contains the specified element.
+   *
+   * @param o the element to search for
+   * @return {@code true} if the storage contains the element; otherwise {@code false}
+   */
+  boolean contains(Object o);
+
+  /**
+   * Adds a new element to this storage.
+   *
+   * @param value the element to be added
+   */
+  void add(T value);
+
+  /**
+   * Removes one occurrence of the specified element from this storage, if it is present.
+   *
+   * @param o the element to be removed
+   * @return {@code true} if the element was removed; otherwise {@code false}
+   */
+  boolean remove(Object o);
+
+  /**
+   * Removes all elements from this storage, leaving it empty.
+   */
+  void clear();
+
+  /**
+   * Returns an iterator over the elements in this storage. Removing the element most recently
+   * returned by the iterator through {@link #remove(Object)} does not invalidate the iterator.
+   *
+   * @return an {@link Iterator} over the stored elements
+   */
+  Iterator<T> iterator();
+}
@@ -0,0 +1,53 @@
+package dev.mkushnir885.bench;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar. Accepts the regular JMH command-line options, but writes the
+ * results as JSON to {@value #DEFAULT_RESULT_FILE} unless another format or file is requested, so
+ * that the results of different runs can be diffed.
+ */
+public class BenchmarkRunner {
+
+  /**
+   * The file the results are written to when no {@code -rff} option is given.
+   */
+  public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+  /**
+   * Runs the benchmarks selected by the command-line options.
+   *
+   * @param args JMH command-line options, for example a benchmark name pattern
+   */
+  public static void main(String[] args) {
+    try {
+
+      var cmdOptions = new CommandLineOptions(args);
+      if (cmdOptions.shouldHelp()) {
+        cmdOptions.showHelp();
+        return;
+      }
+
+      var builder = new OptionsBuilder().parent(cmdOptions);
+      if (!cmdOptions.getResultFormat().hasValue()) {
+        builder.resultFormat(ResultFormatType.JSON);
+      }
+      if (!cmdOptions.getResult().hasValue()) {
+        builder.result(DEFAULT_RESULT_FILE);
+      }
+
+      new Runner(builder.build()).run();
+
+    } catch (CommandLineOptionException | RunnerException | IOException e) {
+      System.err.println("Execution failed. " + e.getMessage());
+      System.exit(1);
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package dev.mkushnir885.bench;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import dev.mkushnir885.bouquet.Bouquet;
+import dev.mkushnir885.bouquet.MutableBouquet;
+import dev.mkushnir885.flowers.Flower;
+
+/**
+ * Benchmarks the bouquet operations of the laboratory work 5.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BouquetBenchmark {
+
+  /**
+   * The number of flowers in the bouquet.
+   */
+  @Param({"100", "10000", "1000000"})
+  public int size;
+
+  private Flower[] flowers;
+  private Bouquet bouquet;
+  private MutableBouquet mutableBouquet;
+  private MutableBouquet indexedBouquet;
+  private int replaced;
+
+  @Setup
+  public void setUp() {
+    flowers = FlowerGenerator.generate(size, 42);
+    bouquet = new Bouquet(flowers.clone(), 15.99);
+    mutableBouquet = new MutableBouquet(flowers, 15.99);
+    indexedBouquet = new MutableBouquet(flowers, 15.99);
+  }
+
+  @Benchmark
+  public double getCost() {
+    return bouquet.getCost();
+  }
+
+  /**
+   * Reads the running cost of a mutable bouquet, the counterpart of {@link #getCost()}.
+   */
+  @Benchmark
+  public double getCostMutable() {
+    return mutableBouquet.getCost();
+  }
+
+  /**
+   * Replaces a flower of a mutable bouquet with the one at the mirrored position and reads the
+   * updated cost, as repricing a changed bouquet does.
+   */
+  @Benchmark
+  public double replaceFlowerAndGetCost() {
+    int index = replaced;
+    replaced = (index + 1 == size) ? 0 : index + 1;
+    mutableBouquet.replaceFlower(index, flowers[size - 1 - index]);
+    return mutableBouquet.getCost();
+  }
+
+  /**
+   * Finds the first of the longest flowers, which are rare, so the scan passes most of the
+   * bouquet.
+   */
+  @Benchmark
+  public int indexOfFlowerByLength() {
+    return bouquet.indexOfFlowerByLength(59.9f, 60f);
+  }
+
+  /**
+   * Makes the query of {@link #indexOfFlowerByLength()} on a mutable bouquet that is never
+   * changed, so after the first queries its length index answers them.
+   */
+  @Benchmark
+  public int indexOfFlowerByLengthIndexed() {
+    return indexedBouquet.indexOfFlowerByLength(59.9f, 60f);
+  }
+
+  @Benchmark
+  public int countFlowersByLength() {
+    return bouquet.countFlowersByLength(30f, 35f);
+  }
+
+  @Benchmark
+  public int countFlowersByLengthIndexed() {
+    return indexedBouquet.countFlowersByLength(30f, 35f);
+  }
+
+  /**
+   * Sorts a bouquet made of a fresh copy of the flowers, so the measured time includes copying the
+   * array.
+   */
+  @Benchmark
+  public Bouquet sortFlowersByFreshnessLevel() {
+    var sorted = new Bouquet(flowers.clone(), 15.99);
+    sorted.sortFlowersByFreshnessLevel();
+    return sorted;
+  }
+
+  /**
+   * Writes the bouquet to a writer that discards the characters.
+   */
+  @Benchmark
+  public void writeTo() throws IOException {
+    bouquet.writeTo(Writer.nullWriter());
+  }
+
+  /**
+   * Sorts a copy of the bouquet with all available processors, the counterpart of
+   * {@link #sortFlowersByFreshnessLevel()}.
+   */
+  @Benchmark
+  public Bouquet sortFlowersByFreshnessLevelParallel() {
+    var sorted = new Bouquet(flowers.clone(), 15.99);
+    sorted.sortFlowersByFreshnessLevel(Runtime.getRuntime().availableProcessors());
+    return sorted;
+  }
+
+  @Benchmark
+  public Bouquet sortFlowersByPrice() {
+    var sorted = new Bouquet(flowers.clone(), 15.99);
+    sorted.sortFlowersByPrice();
+    return sorted;
+  }
+
+  /**
+   * Selects the ten freshest flowers, the counterpart of {@link #sortFlowersByFreshnessLevel()}
+   * when only the first flowers of the sorted bouquet are needed.
+   */
+  @Benchmark
+  public Flower[] getFreshestFlowers() {
+    return bouquet.getFreshestFlowers(10);
+  }
+
+  /**
+   * Selects the cheapest half of the flowers, which is done by quickselect.
+   */
+  @Benchmark
+  public Flower[] getCheapestFlowersHalf() {
+    return bouquet.getCheapestFlowers(flowers.length / 2);
+  }
+}
@@ -0,0 +1,46 @@
+package dev.mkushnir885.bench;
+
+import java.awt.Color;
+import java.util.Random;
+
+import dev.mkushnir885.flowers.Flower;
+import dev.mkushnir885.flowers.Lily;
+import dev.mkushnir885.flowers.Rose;
+import dev.mkushnir885.flowers.Tulip;
+
+/**
+ * Generates pseudo-random flowers of all kinds for the bouquet and flower set benchmarks.
+ */
+final class FlowerGenerator {
+
+  private static final Color[] COLORS = {Color.RED, Color.YELLOW, Color.PINK, Color.WHITE};
+
+  private FlowerGenerator() {
+  }
+
+  /**
+   * Generates an array of flowers. Roses, tulips and lilies alternate in the array.
+   *
+   * @param count the number of flowers
+   * @param seed  the seed of the pseudo-random generator
+   * @return the generated flowers
+   */
+  static Flower[] generate(int count, long seed) {
+    var random = new Random(seed);
+    var flowers = new Flower[count];
+
+    for (int i = 0; i < count; i++) {
+      double price = 1 + random.nextInt(2000) / 100.0;
+      double freshness = random.nextInt(1001) / 1000.0;
+      int length = 100 + random.nextInt(500);
+
+      flowers[i] = switch (i % 3) {
+        case 0 -> new Rose(price, freshness, length, random.nextBoolean());
+        case 1 -> new Tulip(price, freshness, length, random.nextInt(4),
+            COLORS[random.nextInt(COLORS.length)]);
+        default -> new Lily(price, freshness, length, 3 + random.nextInt(6));
+      };
+    }
+    return flowers;
+  }
+}
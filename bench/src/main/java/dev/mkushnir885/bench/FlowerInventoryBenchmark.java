@@ -0,0 +1,78 @@
+package dev.mkushnir885.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import dev.mkushnir885.flowers.Flower;
+import dev.mkushnir885.flowers.FlowerInventory;
+
+/**
+ * Benchmarks the aggregates of the columnar flower inventory of the laboratory work 5 against the
+ * same aggregates computed over an array of flower objects.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlowerInventoryBenchmark {
+
+  /**
+   * The number of flowers in the inventory.
+   */
+  @Param({"10000", "1000000"})
+  public int size;
+
+  private Flower[] flowers;
+  private FlowerInventory inventory;
+
+  @Setup
+  public void setUp() {
+    flowers = FlowerGenerator.generate(size, 42);
+    inventory = FlowerInventory.of(flowers);
+  }
+
+  @Benchmark
+  public double totalPrice() {
+    return inventory.totalPrice();
+  }
+
+  /**
+   * Sums the prices of the flower objects, the counterpart of {@link #totalPrice()}.
+   */
+  @Benchmark
+  public double totalPriceOfObjects() {
+    double sum = 0;
+    for (var flower : flowers) {
+      sum += flower.getPrice();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int countByLength() {
+    return inventory.countByLength(30, 35);
+  }
+
+  /**
+   * Counts the flower objects in the length range, the counterpart of {@link #countByLength()}.
+   */
+  @Benchmark
+  public int countByLengthOfObjects() {
+    int count = 0;
+    for (var flower : flowers) {
+      float length = flower.getLength();
+      if (length >= 30 && length <= 35) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  public int[] freshnessHistogram() {
+    return inventory.freshnessHistogram(10);
+  }
+}
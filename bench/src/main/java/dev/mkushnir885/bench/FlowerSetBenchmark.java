@@ -0,0 +1,99 @@
+package dev.mkushnir885.bench;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import dev.mkushnir885.flowers.Flower;
+import dev.mkushnir885.flowerset.FlowerSet;
+import dev.mkushnir885.flowerset.FlowerSet.StorageMode;
+
+/**
+ * Benchmarks the flower set operations of the laboratory work 6 for every kind of storage.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlowerSetBenchmark {
+
+  /**
+   * The number of flowers in the set.
+   */
+  @Param({"100", "1000", "10000"})
+  public int size;
+
+  /**
+   * The kind of storage backing the set.
+   */
+  @Param
+  public StorageMode mode;
+
+  private Flower[] flowers;
+  private Flower[] queries;
+  private List<Flower> retained;
+  private FlowerSet<Flower> set;
+  private FlowerSet<Flower> retainSet;
+
+  @Setup
+  public void setUp() {
+    flowers = FlowerGenerator.generate(size, 42);
+
+    // Every second query is a copy of a contained flower, the rest are absent from the set
+    var absent = FlowerGenerator.generate(size, 43);
+    var copies = FlowerGenerator.generate(size, 42);
+    queries = new Flower[size];
+    for (int i = 0; i < size; i++) {
+      queries[i] = (i % 2 == 0) ? copies[i] : absent[i];
+    }
+
+    retained = Arrays.asList(Arrays.copyOf(copies, size / 2));
+    set = newSet();
+  }
+
+  /**
+   * Rebuilds the set consumed by {@link #retainAll()} before every invocation.
+   */
+  @Setup(Level.Invocation)
+  public void setUpRetainSet() {
+    retainSet = newSet();
+  }
+
+  @Benchmark
+  public FlowerSet<Flower> add() {
+    return newSet();
+  }
+
+  @Benchmark
+  public int contains() {
+    int found = 0;
+    for (var query : queries) {
+      if (set.contains(query)) {
+        found++;
+      }
+    }
+    return found;
+  }
+
+  @Benchmark
+  public boolean retainAll() {
+    return retainSet.retainAll(retained);
+  }
+
+  @Benchmark
+  public List<Flower> getCheapestFlowers() {
+    return set.getCheapestFlowers(10);
+  }
+
+  private FlowerSet<Flower> newSet() {
+    var flowerSet = new FlowerSet<>(mode);
+    for (var flower : flowers) {
+      flowerSet.add(flower);
+    }
+    return flowerSet;
+  }
+}
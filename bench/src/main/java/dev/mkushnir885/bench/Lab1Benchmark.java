@@ -0,0 +1,210 @@
+package dev.mkushnir885.bench;
+
+import java.lang.foreign.Arena;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks the matrix operations of the laboratory work 1 on jagged {@code float[][]} arrays, on
+ * flat {@code FloatMatrix} objects and on off-heap {@code SegmentMatrix} objects. The forks of the methods with the {@code Scalar} suffix
+ * disable the vectorized kernels, so both kernels are compared on the same data.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = Lab1Benchmark.VECTOR_MODULE)
+@State(Scope.Benchmark)
+public class Lab1Benchmark {
+
+  static final String VECTOR_MODULE = "--add-modules=jdk.incubator.vector";
+
+  static final String SCALAR_KERNELS = "-Dlab1.kernels=scalar";
+
+  private static final Class<?> FLOAT_MATRIX = LabMethods.findClass("FloatMatrix");
+
+  private static final MethodHandle FLOAT_MATRIX_OF = LabMethods.findStatic("FloatMatrix", "of",
+      MethodType.methodType(FLOAT_MATRIX, float[][].class));
+
+  private static final MethodHandle XOR_FLOAT_MATRICES = LabMethods.findStatic("Lab1",
+      "xorMatrices", MethodType.methodType(FLOAT_MATRIX, FLOAT_MATRIX, FLOAT_MATRIX))
+      .asType(MethodType.methodType(Object.class, Object.class, Object.class));
+
+  private static final MethodHandle XOR_COL_MAX_ELEMS_SUM = LabMethods.findStatic("Lab1",
+      "xorColMaxElemsSum", MethodType.methodType(float.class, FLOAT_MATRIX, FLOAT_MATRIX))
+      .asType(MethodType.methodType(float.class, Object.class, Object.class));
+
+  private static final MethodHandle CALC_FLOAT_MATRIX_COL_MAX_ELEMS_SUM = LabMethods.findStatic(
+      "Lab1", "calcColMaxElemsSum", MethodType.methodType(float.class, FLOAT_MATRIX))
+      .asType(MethodType.methodType(float.class, Object.class));
+
+  private static final Class<?> SEGMENT_MATRIX = LabMethods.findClass("SegmentMatrix");
+
+  private static final MethodHandle SEGMENT_MATRIX_COPY_OF = LabMethods.findStatic("SegmentMatrix",
+      "copyOf", MethodType.methodType(SEGMENT_MATRIX, float[][].class, Arena.class));
+
+  private static final MethodHandle XOR_SEGMENT_MATRICES = LabMethods.findStatic("Lab1",
+      "xorMatrices",
+      MethodType.methodType(void.class, SEGMENT_MATRIX, SEGMENT_MATRIX, SEGMENT_MATRIX))
+      .asType(MethodType.methodType(void.class, Object.class, Object.class, Object.class));
+
+  private static final MethodHandle CALC_SEGMENT_MATRIX_COL_MAX_ELEMS_SUM = LabMethods.findStatic(
+      "Lab1", "calcColMaxElemsSum", MethodType.methodType(float.class, SEGMENT_MATRIX))
+      .asType(MethodType.methodType(float.class, Object.class));
+
+  private static final MethodHandle XOR_MATRICES = LabMethods.findStatic("Lab1", "xorMatrices",
+      MethodType.methodType(float[][].class, float[][].class, float[][].class));
+
+  private static final MethodHandle CALC_COL_MAX_ELEMS_SUM = LabMethods.findStatic("Lab1",
+      "calcColMaxElemsSum", MethodType.methodType(float.class, float[][].class));
+
+  /**
+   * The number of rows and columns of the square matrices.
+   */
+  @Param({"64", "512", "2048"})
+  public int size;
+
+  private float[][] m1;
+  private float[][] m2;
+  private float[][] xored;
+  private Object flatM1;
+  private Object flatM2;
+  private Object flatXored;
+  private Arena arena;
+  private Object segmentM1;
+  private Object segmentM2;
+  private Object segmentXored;
+
+  /**
+   * Fills the input matrices with values whose XOR never results in NaN.
+   */
+  @Setup
+  public void setUp() throws Throwable {
+    var random = new Random(42);
+    m1 = randomMatrix(random);
+    m2 = randomMatrix(random);
+    xored = (float[][]) XOR_MATRICES.invokeExact(m1, m2);
+    flatM1 = FLOAT_MATRIX_OF.invoke(m1);
+    flatM2 = FLOAT_MATRIX_OF.invoke(m2);
+    flatXored = FLOAT_MATRIX_OF.invoke(xored);
+    arena = Arena.ofShared();
+    segmentM1 = SEGMENT_MATRIX_COPY_OF.invoke(m1, arena);
+    segmentM2 = SEGMENT_MATRIX_COPY_OF.invoke(m2, arena);
+    segmentXored = SEGMENT_MATRIX_COPY_OF.invoke(xored, arena);
+  }
+
+  /**
+   * Frees the off-heap matrices.
+   */
+  @TearDown
+  public void tearDown() {
+    arena.close();
+  }
+
+  @Benchmark
+  public float[][] xorMatrices() throws Throwable {
+    return (float[][]) XOR_MATRICES.invokeExact(m1, m2);
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = {VECTOR_MODULE, SCALAR_KERNELS})
+  public float[][] xorMatricesScalar() throws Throwable {
+    return xorMatrices();
+  }
+
+  @Benchmark
+  public Object xorFlatMatrices() throws Throwable {
+    return (Object) XOR_FLOAT_MATRICES.invokeExact(flatM1, flatM2);
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = {VECTOR_MODULE, SCALAR_KERNELS})
+  public Object xorFlatMatricesScalar() throws Throwable {
+    return xorFlatMatrices();
+  }
+
+  /**
+   * Writes the XOR into an existing off-heap matrix, as done for a file mapped by
+   * {@code Lab1.main}.
+   */
+  @Benchmark
+  public Object xorSegmentMatrices() throws Throwable {
+    XOR_SEGMENT_MATRICES.invokeExact(segmentM1, segmentM2, segmentXored);
+    return segmentXored;
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = {VECTOR_MODULE, SCALAR_KERNELS})
+  public Object xorSegmentMatricesScalar() throws Throwable {
+    return xorSegmentMatrices();
+  }
+
+  @Benchmark
+  public float calcColMaxElemsSum() throws Throwable {
+    return (float) CALC_COL_MAX_ELEMS_SUM.invokeExact(xored);
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = {VECTOR_MODULE, SCALAR_KERNELS})
+  public float calcColMaxElemsSumScalar() throws Throwable {
+    return calcColMaxElemsSum();
+  }
+
+  @Benchmark
+  public float calcFlatColMaxElemsSum() throws Throwable {
+    return (float) CALC_FLOAT_MATRIX_COL_MAX_ELEMS_SUM.invokeExact(flatXored);
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = {VECTOR_MODULE, SCALAR_KERNELS})
+  public float calcFlatColMaxElemsSumScalar() throws Throwable {
+    return calcFlatColMaxElemsSum();
+  }
+
+  @Benchmark
+  public float calcSegmentColMaxElemsSum() throws Throwable {
+    return (float) CALC_SEGMENT_MATRIX_COL_MAX_ELEMS_SUM.invokeExact(segmentXored);
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = {VECTOR_MODULE, SCALAR_KERNELS})
+  public float calcSegmentColMaxElemsSumScalar() throws Throwable {
+    return calcSegmentColMaxElemsSum();
+  }
+
+  /**
+   * Creates a matrix of values in the ranges (-2, -1] and [1, 2). All such values share the same
+   * exponent, so the exponent of their XOR is zero.
+   */
+  private float[][] randomMatrix(Random random) {
+    var m = new float[size][size];
+    for (var row : m) {
+      for (int j = 0; j < row.length; j++) {
+        float value = 1 + random.nextFloat(Math.nextDown(1f));
+        row[j] = random.nextBoolean() ? value : -value;
+      }
+    }
+    return m;
+  }
+
+  /**
+   * Runs the two steps of the pipeline of {@code Lab1.main}, materializing the XOR matrix.
+   */
+  @Benchmark
+  public float xorThenCalcColMaxElemsSum() throws Throwable {
+    Object xoredMatrix = (Object) XOR_FLOAT_MATRICES.invokeExact(flatM1, flatM2);
+    return (float) CALC_FLOAT_MATRIX_COL_MAX_ELEMS_SUM.invokeExact(xoredMatrix);
+  }
+
+  /**
+   * Runs the same pipeline in a single pass without the XOR matrix.
+   */
+  @Benchmark
+  public float xorColMaxElemsSum() throws Throwable {
+    return (float) XOR_COL_MAX_ELEMS_SUM.invokeExact(flatM1, flatM2);
+  }
+}
@@ -0,0 +1,40 @@
+package dev.mkushnir885.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks the longest palindrome search of the laboratory work 2.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class Lab2Benchmark {
+
+  private static final MethodHandle LONGEST_PALINDROME = LabMethods.findStatic("Lab2",
+      "longestPalindrome", MethodType.methodType(String.class, String.class));
+
+  /**
+   * The approximate number of characters in the searched text.
+   */
+  @Param({"1000", "10000"})
+  public int length;
+
+  private String text;
+
+  @Setup
+  public void setUp() {
+    text = TextGenerator.generate(length, 42);
+  }
+
+  @Benchmark
+  public String longestPalindrome() throws Throwable {
+    return (String) LONGEST_PALINDROME.invokeExact(text);
+  }
+}
@@ -0,0 +1,195 @@
+package dev.mkushnir885.bench;
+
+import java.io.Writer;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks the sorting and searching of planes of the laboratory work 3.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class Lab3Benchmark {
+
+  private static final Class<?> PLANE = LabMethods.findClass("Plane");
+
+  private static final MethodHandle NEW_PLANE = LabMethods.findConstructor("Plane",
+          MethodType.methodType(void.class, String.class, String.class, float.class, int.class,
+              boolean.class))
+      .asType(MethodType.methodType(Object.class, String.class, String.class, float.class,
+          int.class, boolean.class));
+
+  private static final MethodHandle SORT_PLANES = LabMethods.findStatic("Lab3", "sortPlanes",
+          MethodType.methodType(void.class, PLANE.arrayType()))
+      .asType(MethodType.methodType(void.class, Object[].class));
+
+  private static final MethodHandle FIND_IDENTICAL_PLANE = LabMethods.findStatic("Lab3",
+          "findIdenticalPlane", MethodType.methodType(int.class, PLANE.arrayType(), PLANE))
+      .asType(MethodType.methodType(int.class, Object[].class, Object.class));
+
+  private static final MethodHandle NEW_PLANE_INDEX = LabMethods.findConstructor("PlaneIndex",
+          MethodType.methodType(void.class, PLANE.arrayType()))
+      .asType(MethodType.methodType(Object.class, Object[].class));
+
+  private static final MethodHandle INDEX_OF = LabMethods.findVirtual("PlaneIndex", "indexOf",
+          MethodType.methodType(int.class, PLANE))
+      .asType(MethodType.methodType(int.class, Object.class, Object.class));
+
+  private static final MethodHandle BINARY_SEARCH = LabMethods.findStatic("PlaneIndex",
+          "binarySearch", MethodType.methodType(int.class, PLANE.arrayType(), PLANE))
+      .asType(MethodType.methodType(int.class, Object[].class, Object.class));
+
+  private static final MethodHandle FIND_IDENTICAL_PLANE_PARALLEL = LabMethods.findStatic("Lab3",
+          "findIdenticalPlane",
+          MethodType.methodType(int.class, PLANE.arrayType(), PLANE, int.class))
+      .asType(MethodType.methodType(int.class, Object[].class, Object.class, int.class));
+
+  private static final MethodHandle PLANE_TABLE_OF = LabMethods.findStatic("PlaneTable", "of",
+          MethodType.methodType(LabMethods.findClass("PlaneTable"), PLANE.arrayType()))
+      .asType(MethodType.methodType(Object.class, Object[].class));
+
+  private static final MethodHandle SORTED_ROWS = LabMethods.findVirtual("PlaneTable",
+          "sortedRows", MethodType.methodType(int[].class))
+      .asType(MethodType.methodType(int[].class, Object.class));
+
+  private static final MethodHandle WHERE_MAX_SPEED_BETWEEN = LabMethods.findVirtual("PlaneTable",
+          "whereMaxSpeedBetween", MethodType.methodType(BitSet.class, float.class, float.class))
+      .asType(MethodType.methodType(BitSet.class, Object.class, float.class, float.class));
+
+  private static final MethodHandle WRITE_PLANES = LabMethods.findStatic("Lab3", "writePlanes",
+          MethodType.methodType(void.class, PLANE.arrayType(), Writer.class))
+      .asType(MethodType.methodType(void.class, Object[].class, Writer.class));
+
+  private static final MethodHandle WRITE_ROWS = LabMethods.findVirtual("PlaneTable",
+          "writeRows", MethodType.methodType(void.class, int[].class, Writer.class))
+      .asType(MethodType.methodType(void.class, Object.class, int[].class, Writer.class));
+
+  /**
+   * The number of planes in the fleet.
+   */
+  @Param({"1000", "100000"})
+  public int size;
+
+  private Object[] planes;
+  private Object[] sortedPlanes;
+  private Object query;
+  private Object index;
+  private Object table;
+  private int[] sortedRows;
+
+  @Setup
+  public void setUp() throws Throwable {
+    var random = new Random(42);
+    planes = (Object[]) Array.newInstance(PLANE, size);
+    for (int i = 0; i < size; i++) {
+      planes[i] = (Object) NEW_PLANE.invokeExact(
+          "Model-" + i,
+          "Manufacturer-" + random.nextInt(100),
+          500 + random.nextInt(3000) / 10.0f,
+          1950 + random.nextInt(75),
+          random.nextBoolean());
+    }
+
+    sortedPlanes = planes.clone();
+    SORT_PLANES.invokeExact(sortedPlanes);
+    query = sortedPlanes[sortedPlanes.length - 1];
+    index = (Object) NEW_PLANE_INDEX.invokeExact(sortedPlanes);
+    table = (Object) PLANE_TABLE_OF.invokeExact(planes);
+    sortedRows = (int[]) SORTED_ROWS.invokeExact(table);
+  }
+
+  /**
+   * Sorts a fresh copy of the fleet, so the measured time includes copying the array.
+   */
+  @Benchmark
+  public Object[] sortPlanes() throws Throwable {
+    var copy = planes.clone();
+    SORT_PLANES.invokeExact(copy);
+    return copy;
+  }
+
+  /**
+   * Searches the sorted fleet for its last plane, which is the worst case of a linear search.
+   */
+  @Benchmark
+  public int findIdenticalPlane() throws Throwable {
+    return (int) FIND_IDENTICAL_PLANE.invokeExact(sortedPlanes, query);
+  }
+
+  /**
+   * Searches the sorted fleet for its last plane with all available processors.
+   */
+  @Benchmark
+  public int findIdenticalPlaneParallel() throws Throwable {
+    return (int) FIND_IDENTICAL_PLANE_PARALLEL.invokeExact(sortedPlanes, query,
+        Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Searches the sorted fleet for the same plane by binary search.
+   */
+  @Benchmark
+  public int binarySearchPlane() throws Throwable {
+    return (int) BINARY_SEARCH.invokeExact(sortedPlanes, query);
+  }
+
+  /**
+   * Looks the same plane up in the hash index of the fleet.
+   */
+  @Benchmark
+  public int indexOfPlane() throws Throwable {
+    return (int) INDEX_OF.invokeExact(index, query);
+  }
+
+  /**
+   * Builds the hash index of the fleet.
+   */
+  @Benchmark
+  public Object buildPlaneIndex() throws Throwable {
+    return (Object) NEW_PLANE_INDEX.invokeExact(sortedPlanes);
+  }
+
+  /**
+   * Sorts the rows of the columnar table of the fleet, which is the counterpart of
+   * {@link #sortPlanes()}.
+   */
+  @Benchmark
+  public int[] sortPlaneTable() throws Throwable {
+    return (int[]) SORTED_ROWS.invokeExact(table);
+  }
+
+  /**
+   * Filters the columnar table of the fleet by maximum speed.
+   */
+  @Benchmark
+  public BitSet filterPlaneTable() throws Throwable {
+    return (BitSet) WHERE_MAX_SPEED_BETWEEN.invokeExact(table, 600f, 700f);
+  }
+
+  /**
+   * Writes the sorted fleet line by line to a writer that discards the characters.
+   */
+  @Benchmark
+  public void writePlanes() throws Throwable {
+    WRITE_PLANES.invokeExact(sortedPlanes, Writer.nullWriter());
+  }
+
+  /**
+   * Writes the sorted rows of the columnar table to a writer that discards the characters, which
+   * is the counterpart of {@link #writePlanes()}.
+   */
+  @Benchmark
+  public void writePlaneTable() throws Throwable {
+    WRITE_ROWS.invokeExact(table, sortedRows, Writer.nullWriter());
+  }
+}
@@ -0,0 +1,55 @@
+package dev.mkushnir885.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import dev.mkushnir885.Lab4;
+import dev.mkushnir885.classes.Text;
+
+/**
+ * Benchmarks the construction of the text model and the longest palindrome search of the
+ * laboratory work 4.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class Lab4Benchmark {
+
+  /**
+   * The approximate number of characters in the text.
+   */
+  @Param({"1000", "10000"})
+  public int length;
+
+  private String source;
+  private Text text;
+
+  @Setup
+  public void setUp() {
+    source = TextGenerator.generate(length, 42);
+    text = new Text(source);
+  }
+
+  @Benchmark
+  public Text newText() {
+    return new Text(source);
+  }
+
+  /**
+   * Extracts the middle half of the text, so both ends of the range fall deep inside it.
+   */
+  @Benchmark
+  public Text substrByLetters() {
+    int letters = text.letterCount();
+    return text.substrByLetters(letters / 4, letters - letters / 4);
+  }
+
+  @Benchmark
+  public Text longestPalindrome() {
+    return Lab4.longestPalindrome(text);
+  }
+}
@@ -0,0 +1,83 @@
+package dev.mkushnir885.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Resolves methods of the laboratory works 1-3. Those classes live in the default package, which
+ * cannot be referenced from a named package, so the benchmarks call them through method handles.
+ * A method handle stored in a {@code static final} field is inlined by the JIT compiler like a
+ * direct call.
+ */
+final class LabMethods {
+
+  private LabMethods() {
+  }
+
+  /**
+   * Finds a class of the default package by its simple name.
+   *
+   * @param name the simple name of the class
+   * @return the class object
+   * @throws IllegalStateException if the class is not on the class path
+   */
+  static Class<?> findClass(String name) {
+    try {
+      return Class.forName(name);
+    } catch (ClassNotFoundException e) {
+      throw new IllegalStateException("Class " + name + " is not on the class path.", e);
+    }
+  }
+
+  /**
+   * Finds a public static method of a default package class.
+   *
+   * @param className the simple name of the class
+   * @param name      the name of the method
+   * @param type      the exact type of the method
+   * @return a method handle of the method
+   * @throws IllegalStateException if the method cannot be found
+   */
+  static MethodHandle findStatic(String className, String name, MethodType type) {
+    try {
+      return MethodHandles.publicLookup().findStatic(findClass(className), name, type);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Method " + className + "." + name + " is not found.", e);
+    }
+  }
+
+  /**
+   * Finds a public instance method of a default package class. The receiver is the first
+   * parameter of the returned method handle.
+   *
+   * @param className the simple name of the class
+   * @param name      the name of the method
+   * @param type      the exact type of the method, without the receiver
+   * @return a method handle of the method
+   * @throws IllegalStateException if the method cannot be found
+   */
+  static MethodHandle findVirtual(String className, String name, MethodType type) {
+    try {
+      return MethodHandles.publicLookup().findVirtual(findClass(className), name, type);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Method " + className + "." + name + " is not found.", e);
+    }
+  }
+
+  /**
+   * Finds a public constructor of a default package class.
+   *
+   * @param className the simple name of the class
+   * @param type      the exact type of the constructor, with a {@code void} return type
+   * @return a method handle of the constructor
+   * @throws IllegalStateException if the constructor cannot be found
+   */
+  static MethodHandle findConstructor(String className, MethodType type) {
+    try {
+      return MethodHandles.publicLookup().findConstructor(findClass(className), type);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Constructor of " + className + " is not found.", e);
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package dev.mkushnir885.bench;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import dev.mkushnir885.MappedPalindromeFinder;
+
+/**
+ * Benchmarks the longest palindrome search of the laboratory works 2 and 4 over memory-mapped
+ * files, both of generated text and of a single letter repeated, whose palindrome spans the whole
+ * file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappedPalindromeBenchmark {
+
+  private static final MethodHandle LONGEST_PALINDROME = LabMethods.findStatic("Lab2",
+          "longestPalindrome",
+          MethodType.methodType(LabMethods.findClass("Lab2$Palindrome"), Path.class))
+      .asType(MethodType.methodType(Object.class, Path.class));
+
+  /**
+   * The approximate number of characters in the file.
+   */
+  @Param({"100000", "1000000"})
+  public int length;
+
+  /**
+   * The content of the file: {@code text} for generated text, {@code run} for a single letter.
+   */
+  @Param({"text", "run"})
+  public String content;
+
+  private Path file;
+
+  @Setup
+  public void setUp() throws IOException {
+    String source = content.equals("run")
+        ? "a".repeat(length)
+        : TextGenerator.generate(length, 42);
+    file = Files.createTempFile("palindrome", ".txt");
+    Files.writeString(file, source, StandardCharsets.UTF_8);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  @Benchmark
+  public Object lab2LongestPalindrome() throws Throwable {
+    return (Object) LONGEST_PALINDROME.invokeExact(file);
+  }
+
+  @Benchmark
+  public MappedPalindromeFinder.Palindrome lab4LongestPalindrome() throws IOException {
+    return MappedPalindromeFinder.longestPalindrome(file);
+  }
+}
@@ -0,0 +1,92 @@
+package dev.mkushnir885.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks the scaling of the parallel matrix operations of the laboratory work 1 with the number
+ * of threads. The speedup for {@code n} threads is the score for one thread divided by the score
+ * for {@code n} threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = Lab1Benchmark.VECTOR_MODULE)
+@State(Scope.Benchmark)
+public class ParallelLab1Benchmark {
+
+  private static final Class<?> FLOAT_MATRIX = LabMethods.findClass("FloatMatrix");
+
+  private static final MethodHandle FLOAT_MATRIX_OF = LabMethods.findStatic("FloatMatrix", "of",
+      MethodType.methodType(FLOAT_MATRIX, float[][].class));
+
+  private static final MethodHandle XOR_MATRICES = LabMethods.findStatic("Lab1", "xorMatrices",
+      MethodType.methodType(FLOAT_MATRIX, FLOAT_MATRIX, FLOAT_MATRIX, int.class))
+      .asType(MethodType.methodType(Object.class, Object.class, Object.class, int.class));
+
+  private static final MethodHandle CALC_COL_MAX_ELEMS_SUM = LabMethods.findStatic("Lab1",
+      "calcColMaxElemsSum", MethodType.methodType(float.class, FLOAT_MATRIX, int.class))
+      .asType(MethodType.methodType(float.class, Object.class, int.class));
+
+  private static final MethodHandle XOR_COL_MAX_ELEMS_SUM = LabMethods.findStatic("Lab1",
+      "xorColMaxElemsSum",
+      MethodType.methodType(float.class, FLOAT_MATRIX, FLOAT_MATRIX, int.class))
+      .asType(MethodType.methodType(float.class, Object.class, Object.class, int.class));
+
+  /**
+   * The number of rows and columns of the square matrices.
+   */
+  @Param({"4096"})
+  public int size;
+
+  /**
+   * The number of threads processing the matrices.
+   */
+  @Param({"1", "2", "4", "8", "16", "32"})
+  public int threads;
+
+  private Object m1;
+  private Object m2;
+
+  /**
+   * Fills the input matrices with values in the ranges (-2, -1] and [1, 2), whose XOR never
+   * results in NaN.
+   */
+  @Setup
+  public void setUp() throws Throwable {
+    var random = new Random(42);
+    m1 = FLOAT_MATRIX_OF.invoke(randomMatrix(random));
+    m2 = FLOAT_MATRIX_OF.invoke(randomMatrix(random));
+  }
+
+  @Benchmark
+  public Object xorMatrices() throws Throwable {
+    return (Object) XOR_MATRICES.invokeExact(m1, m2, threads);
+  }
+
+  @Benchmark
+  public float calcColMaxElemsSum() throws Throwable {
+    return (float) CALC_COL_MAX_ELEMS_SUM.invokeExact(m1, threads);
+  }
+
+  @Benchmark
+  public float xorColMaxElemsSum() throws Throwable {
+    return (float) XOR_COL_MAX_ELEMS_SUM.invokeExact(m1, m2, threads);
+  }
+
+  private float[][] randomMatrix(Random random) {
+    var m = new float[size][size];
+    for (var row : m) {
+      for (int j = 0; j < row.length; j++) {
+        float value = 1 + random.nextFloat(Math.nextDown(1f));
+        row[j] = random.nextBoolean() ? value : -value;
+      }
+    }
+    return m;
+  }
+}
@@ -0,0 +1,58 @@
+package dev.mkushnir885.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import dev.mkushnir885.Lab4;
+import dev.mkushnir885.classes.Text;
+
+/**
+ * Benchmarks the scaling of the parallel longest palindrome searches of the laboratory works 2 and
+ * 4 with the number of threads. The speedup for {@code n} threads is the score for one thread
+ * divided by the score for {@code n} threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelPalindromeBenchmark {
+
+  private static final MethodHandle LONGEST_PALINDROME = LabMethods.findStatic("Lab2",
+      "longestPalindrome", MethodType.methodType(String.class, String.class, int.class));
+
+  /**
+   * The approximate number of characters in the searched text.
+   */
+  @Param({"1000000"})
+  public int length;
+
+  /**
+   * The number of threads searching the text.
+   */
+  @Param({"1", "2", "4", "8", "16", "32"})
+  public int threads;
+
+  private String source;
+  private Text text;
+
+  @Setup
+  public void setUp() {
+    source = TextGenerator.generate(length, 42);
+    text = new Text(source);
+  }
+
+  @Benchmark
+  public String lab2() throws Throwable {
+    return (String) LONGEST_PALINDROME.invokeExact(source, threads);
+  }
+
+  @Benchmark
+  public Text lab4() {
+    return Lab4.longestPalindrome(text, threads);
+  }
+}
@@ -0,0 +1,134 @@
+package dev.mkushnir885.bench;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks loading fleet files of the laboratory work 3 into a columnar table, from CSV and from
+ * the binary format, against reading the CSV line by line with strings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlaneLoadBenchmark {
+
+  private static final Class<?> PLANE = LabMethods.findClass("Plane");
+
+  private static final Class<?> PLANE_TABLE = LabMethods.findClass("PlaneTable");
+
+  private static final Class<?> READER = LabMethods.findClass("PlaneFile$Reader");
+
+  private static final MethodHandle NEW_PLANE = LabMethods.findConstructor("Plane",
+          MethodType.methodType(void.class, String.class, String.class, float.class, int.class,
+              boolean.class))
+      .asType(MethodType.methodType(Object.class, String.class, String.class, float.class,
+          int.class, boolean.class));
+
+  private static final MethodHandle WRITE_CSV = LabMethods.findStatic("PlaneFile", "writeCsv",
+          MethodType.methodType(void.class, Path.class, PLANE.arrayType()))
+      .asType(MethodType.methodType(void.class, Path.class, Object[].class));
+
+  private static final MethodHandle WRITE_BINARY = LabMethods.findStatic("PlaneFile",
+          "writeBinary", MethodType.methodType(void.class, Path.class, PLANE.arrayType()))
+      .asType(MethodType.methodType(void.class, Path.class, Object[].class));
+
+  private static final MethodHandle READ_CSV = LabMethods.findStatic("PlaneFile", "readCsv",
+          MethodType.methodType(READER, Path.class))
+      .asType(MethodType.methodType(Closeable.class, Path.class));
+
+  private static final MethodHandle READ_BINARY = LabMethods.findStatic("PlaneFile",
+          "readBinary", MethodType.methodType(READER, Path.class))
+      .asType(MethodType.methodType(Closeable.class, Path.class));
+
+  private static final MethodHandle TABLE_OF_READER = LabMethods.findStatic("PlaneTable", "of",
+          MethodType.methodType(PLANE_TABLE, READER))
+      .asType(MethodType.methodType(Object.class, Closeable.class));
+
+  private static final MethodHandle NEW_TABLE = LabMethods.findConstructor("PlaneTable",
+          MethodType.methodType(void.class, int.class))
+      .asType(MethodType.methodType(Object.class, int.class));
+
+  private static final MethodHandle TABLE_ADD = LabMethods.findVirtual("PlaneTable", "add",
+          MethodType.methodType(void.class, String.class, String.class, float.class, int.class,
+              boolean.class))
+      .asType(MethodType.methodType(void.class, Object.class, String.class, String.class,
+          float.class, int.class, boolean.class));
+
+  /**
+   * The number of planes in the fleet file.
+   */
+  @Param({"100000", "1000000"})
+  public int size;
+
+  private Path csv;
+  private Path binary;
+
+  @Setup
+  public void setUp() throws Throwable {
+    var random = new Random(42);
+    var planes = (Object[]) Array.newInstance(PLANE, size);
+    for (int i = 0; i < size; i++) {
+      planes[i] = (Object) NEW_PLANE.invokeExact(
+          "Model-" + i,
+          "Manufacturer-" + random.nextInt(100),
+          500 + random.nextInt(3000) / 10.0f,
+          1950 + random.nextInt(75),
+          random.nextBoolean());
+    }
+
+    csv = Files.createTempFile("fleet", ".csv");
+    binary = Files.createTempFile("fleet", ".bin");
+    WRITE_CSV.invokeExact(csv, planes);
+    WRITE_BINARY.invokeExact(binary, planes);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(csv);
+    Files.deleteIfExists(binary);
+  }
+
+  @Benchmark
+  public Object loadCsv() throws Throwable {
+    try (var reader = (Closeable) READ_CSV.invokeExact(csv)) {
+      return (Object) TABLE_OF_READER.invokeExact(reader);
+    }
+  }
+
+  @Benchmark
+  public Object loadBinary() throws Throwable {
+    try (var reader = (Closeable) READ_BINARY.invokeExact(binary)) {
+      return (Object) TABLE_OF_READER.invokeExact(reader);
+    }
+  }
+
+  /**
+   * Loads the CSV by splitting its lines into strings and parsing the numbers from them.
+   */
+  @Benchmark
+  public Object loadCsvWithStrings() throws Throwable {
+    var table = (Object) NEW_TABLE.invokeExact(16);
+    try (BufferedReader reader = Files.newBufferedReader(csv)) {
+      reader.readLine();
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        String[] fields = line.split(",");
+        TABLE_ADD.invokeExact(table, fields[0], fields[1], Float.parseFloat(fields[2]),
+            Integer.parseInt(fields[3]), Boolean.parseBoolean(fields[4]));
+      }
+    }
+    return table;
+  }
+}
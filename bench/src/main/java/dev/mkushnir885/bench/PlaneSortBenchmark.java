@@ -0,0 +1,101 @@
+package dev.mkushnir885.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares the comparator sort of planes of the laboratory work 3 with the radix sort and the
+ * parallel sort of encoded keys on fleets of 10^4 to 10^7 planes. A fleet of 10^8 planes takes about 4 GB of heap, so it is
+ * only sorted on request, for example with {@code -p size=100000000 -jvmArgs -Xmx12g}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlaneSortBenchmark {
+
+  private static final Class<?> PLANE = LabMethods.findClass("Plane");
+
+  private static final MethodHandle NEW_PLANE = LabMethods.findConstructor("Plane",
+          MethodType.methodType(void.class, String.class, String.class, float.class, int.class,
+              boolean.class))
+      .asType(MethodType.methodType(Object.class, String.class, String.class, float.class,
+          int.class, boolean.class));
+
+  private static final MethodHandle SORT_PLANES = LabMethods.findStatic("Lab3", "sortPlanes",
+          MethodType.methodType(void.class, PLANE.arrayType()))
+      .asType(MethodType.methodType(void.class, Object[].class));
+
+  private static final MethodHandle RADIX_SORT_PLANES = LabMethods.findStatic("Lab3",
+          "radixSortPlanes", MethodType.methodType(void.class, PLANE.arrayType()))
+      .asType(MethodType.methodType(void.class, Object[].class));
+
+  private static final MethodHandle PARALLEL_SORT_PLANES = LabMethods.findStatic("Lab3",
+          "parallelSortPlanes", MethodType.methodType(void.class, PLANE.arrayType()))
+      .asType(MethodType.methodType(void.class, Object[].class));
+
+  /**
+   * The number of planes in the fleet.
+   */
+  @Param({"10000", "100000", "1000000", "10000000"})
+  public int size;
+
+  private Object[] planes;
+  private Object[] copy;
+
+  /**
+   * Creates a fleet whose models and manufacturers are shared strings, so that large fleets fit
+   * into the heap.
+   */
+  @Setup
+  public void setUp() throws Throwable {
+    var random = new Random(42);
+    var names = new String[1000];
+    for (int i = 0; i < names.length; i++) {
+      names[i] = "Name-" + i;
+    }
+
+    planes = (Object[]) Array.newInstance(PLANE, size);
+    for (int i = 0; i < size; i++) {
+      planes[i] = (Object) NEW_PLANE.invokeExact(
+          names[random.nextInt(names.length)],
+          names[random.nextInt(100)],
+          500 + random.nextInt(3000) / 10.0f,
+          1950 + random.nextInt(75),
+          random.nextBoolean());
+    }
+  }
+
+  /**
+   * Restores the unsorted fleet before each call, so every call sorts the same data.
+   */
+  @Setup(Level.Invocation)
+  public void copyPlanes() {
+    copy = planes.clone();
+  }
+
+  @Benchmark
+  public Object[] comparatorSort() throws Throwable {
+    SORT_PLANES.invokeExact(copy);
+    return copy;
+  }
+
+  @Benchmark
+  public Object[] radixSort() throws Throwable {
+    RADIX_SORT_PLANES.invokeExact(copy);
+    return copy;
+  }
+
+  @Benchmark
+  public Object[] parallelSort() throws Throwable {
+    PARALLEL_SORT_PLANES.invokeExact(copy);
+    return copy;
+  }
+}
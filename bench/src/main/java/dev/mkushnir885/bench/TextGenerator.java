@@ -0,0 +1,62 @@
+package dev.mkushnir885.bench;
+
+import java.util.Random;
+
+/**
+ * Generates pseudo-random English-like texts for the palindrome benchmarks. Every generated text is
+ * a sequence of sentences valid for the lab 4 {@code Text} model and contains a single palindrome
+ * phrase in the middle.
+ */
+final class TextGenerator {
+
+  /**
+   * The palindrome phrase embedded into every generated text.
+   */
+  static final String PALINDROME = "A man, a plan, a canal, Panama.";
+
+  private TextGenerator() {
+  }
+
+  /**
+   * Generates a text of approximately the specified length.
+   *
+   * @param length the approximate number of characters in the text
+   * @param seed   the seed of the pseudo-random generator
+   * @return the generated text
+   */
+  static String generate(int length, long seed) {
+    var random = new Random(seed);
+    var sb = new StringBuilder(length + PALINDROME.length() + 64);
+
+    boolean hasPalindrome = false;
+    while (sb.length() < length) {
+      if (!hasPalindrome && sb.length() >= length / 2) {
+        sb.append(PALINDROME).append(' ');
+        hasPalindrome = true;
+      }
+      appendSentence(sb, random);
+    }
+    return sb.toString().trim();
+  }
+
+  /**
+   * Appends a random sentence followed by a space to the builder.
+   *
+   * @param sb     the builder to append to
+   * @param random the pseudo-random generator
+   */
+  private static void appendSentence(StringBuilder sb, Random random) {
+    int words = 3 + random.nextInt(10);
+    for (int i = 0; i < words; i++) {
+      int letters = 1 + random.nextInt(8);
+      for (int j = 0; j < letters; j++) {
+        char letter = (char) ('a' + random.nextInt(26));
+        sb.append(i == 0 && j == 0 ? Character.toUpperCase(letter) : letter);
+      }
+      if (i < words - 1) {
+        sb.append(random.nextInt(6) == 0 ? ", " : " ");
+      }
+    }
+    sb.append(". ");
+  }
+}
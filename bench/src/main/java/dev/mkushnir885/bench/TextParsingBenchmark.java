@@ -0,0 +1,38 @@
+package dev.mkushnir885.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import dev.mkushnir885.classes.Text;
+
+/**
+ * Benchmarks the construction of the lab 4 text model from large inputs, up to 100 MB of text.
+ * Each invocation parses the whole input, so the single shot mode is used.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TextParsingBenchmark {
+
+  /**
+   * The approximate number of characters in the text.
+   */
+  @Param({"1000000", "10000000", "100000000"})
+  public int length;
+
+  private String source;
+
+  @Setup
+  public void setUp() {
+    source = TextGenerator.generate(length, 42);
+  }
+
+  @Benchmark
+  public Text newText() {
+    return new Text(source);
+  }
+}